@@ -0,0 +1,80 @@
+package seedu.gigachad;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import gigachad.task.Deadline;
+import gigachad.task.Event;
+import gigachad.task.Task;
+import gigachad.task.ToDo;
+
+/**
+ * Builds the task lists and files shared by the benchmarks.
+ * Task i is a todo, deadline or event in turn, with the number i in its description.
+ * Dates are spread over about a year so that range queries return a handful of tasks.
+ */
+final class BenchmarkTasks {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final int MINUTES_PER_YEAR = 525_600;
+
+    private BenchmarkTasks() {
+    }
+
+    static ArrayList<Task> createTasks(int taskCount) {
+        ArrayList<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(createTask(i));
+        }
+        return tasks;
+    }
+
+    static Task createTask(int i) {
+        LocalDateTime time = BASE.plusMinutes((i * 7919L) % MINUTES_PER_YEAR);
+        Task task = switch (i % 3) {
+        case 0 -> new ToDo("read book " + i);
+        case 1 -> new Deadline("submit assignment " + i, time);
+        default -> new Event("conference " + i, time, time.plusMinutes(90));
+        };
+        if (i % 2 == 1) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    static void writeTaskFile(Path filePath, int taskCount) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(filePath, StandardCharsets.UTF_8)) {
+            for (Task task : createTasks(taskCount)) {
+                writer.write(task.saveFormat());
+                writer.write("\n");
+            }
+        }
+    }
+
+    /**
+     * Replaces standard output with a sink, since Storage lists every loaded task there.
+     *
+     * @return the original standard output, to restore afterwards
+     */
+    static PrintStream silenceStdout() {
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return stdout;
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package seedu.gigachad;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gigachad.Parser;
+import gigachad.Storage;
+import gigachad.TaskList;
+import gigachad.Ui;
+import gigachad.WriteBehindStorage;
+import gigachad.exception.GigachadException;
+
+/**
+ * Measures the latency of mutating commands, including persisting them, for each storage mode.
+ * Each benchmark undoes its own change so that the list size stays fixed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"plain", "journaled", "write-behind"})
+    public String storageMode;
+
+    private Path directory;
+    private TaskList taskList;
+    private Storage storage;
+    private Ui ui;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stdout = BenchmarkTasks.silenceStdout();
+        directory = Files.createTempDirectory("gigachad-bench");
+        Path filePath = directory.resolve("tasks.txt");
+        BenchmarkTasks.writeTaskFile(filePath, taskCount);
+        storage = switch (storageMode) {
+        case "plain" -> new Storage(filePath);
+        case "journaled" -> new Storage(filePath, true);
+        default -> new WriteBehindStorage(filePath, WriteBehindStorage.Durability.GROUP);
+        };
+        taskList = new TaskList(storage.initStorage());
+        ui = new Ui();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (storage instanceof WriteBehindStorage writeBehind) {
+            writeBehind.close();
+        } else {
+            storage.flush();
+        }
+        System.setOut(stdout);
+        BenchmarkTasks.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public String addAndDelete() throws GigachadException {
+        Parser.parse("todo benchmark task").execute(taskList, ui, storage);
+        return Parser.parse("delete " + taskList.size()).execute(taskList, ui, storage);
+    }
+
+    @Benchmark
+    public String markAndUnmark() throws GigachadException {
+        String taskNumber = String.valueOf(taskCount / 2 + 1);
+        Parser.parse("mark " + taskNumber).execute(taskList, ui, storage);
+        return Parser.parse("unmark " + taskNumber).execute(taskList, ui, storage);
+    }
+}
@@ -0,0 +1,68 @@
+package seedu.gigachad;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gigachad.TaskFileReader;
+import gigachad.task.Task;
+
+/**
+ * Compares the streaming sequential and parallel {@link TaskFileReader} loaders
+ * against the original Scanner-based loader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoaderBenchmark {
+    private static final int PARALLEL_CHUNK_SIZE = 2 * 1024 * 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"scanner", "sequential", "parallel"})
+    public String loader;
+
+    private Path filePath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        filePath = Files.createTempFile("gigachad-bench", ".txt");
+        BenchmarkTasks.writeTaskFile(filePath, taskCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(filePath);
+    }
+
+    @Benchmark
+    public ArrayList<Task> load() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        switch (loader) {
+        case "scanner" -> TaskFileReader.readWithScanner(filePath, tasks);
+        case "sequential" -> TaskFileReader.readSequential(filePath, tasks);
+        default -> TaskFileReader.readParallel(filePath, tasks, PARALLEL_CHUNK_SIZE);
+        }
+        return tasks;
+    }
+}
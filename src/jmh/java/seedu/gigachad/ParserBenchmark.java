@@ -0,0 +1,50 @@
+package seedu.gigachad;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gigachad.Command;
+import gigachad.Parser;
+import gigachad.exception.GigachadException;
+
+/**
+ * Measures how many commands per millisecond {@link Parser#parse} turns into {@link Command}s,
+ * over a mix of every kind of input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    private static final String[] INPUTS = {
+        "list",
+        "todo borrow book",
+        "deadline return book /by 2025-09-09 1900",
+        "event project meeting /from 2025-10-10 1000 /to 2025-10-10 1200",
+        "mark 2",
+        "unmark 2",
+        "delete 3",
+        "find book",
+        "due 2025-10-01 2025-10-31",
+    };
+
+    private int next = 0;
+
+    @Benchmark
+    public Command parse() throws GigachadException {
+        String input = INPUTS[next];
+        next = (next + 1) % INPUTS.length;
+        return Parser.parse(input);
+    }
+}
@@ -0,0 +1,88 @@
+package seedu.gigachad;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+
+/**
+ * Measures how long the terminal interface takes to start in a fresh JVM, answer bye and exit,
+ * against how long a fresh JVM takes just to start and stop the JavaFX toolkit, which the window needs
+ * before it can show anything. Each measurement launches a new JVM with the benchmark's own class path,
+ * in an empty directory so the task file is always new. The JavaFX benchmark needs a display.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+    private Path workingDirectory;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        workingDirectory = Files.createTempDirectory("gigachad-startup");
+    }
+
+    @Benchmark
+    public int console() throws IOException, InterruptedException {
+        return launch("Launcher", "--cli");
+    }
+
+    @Benchmark
+    public int javaFxToolkit() throws IOException, InterruptedException {
+        return launch(FxToolkit.class.getName());
+    }
+
+    private int launch(String... mainClassAndArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path")));
+        command.addAll(Arrays.asList(mainClassAndArgs));
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory.toFile())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try (OutputStream input = process.getOutputStream()) {
+            input.write("bye\n".getBytes(StandardCharsets.UTF_8));
+        }
+        return process.waitFor();
+    }
+
+    /**
+     * Starts the JavaFX toolkit and stops it again, as the window does before it shows anything.
+     */
+    public static final class FxToolkit {
+        private FxToolkit() {
+        }
+
+        public static void main(String[] args) throws InterruptedException {
+            CountDownLatch started = new CountDownLatch(1);
+            Platform.startup(started::countDown);
+            started.await();
+            Platform.exit();
+        }
+    }
+}
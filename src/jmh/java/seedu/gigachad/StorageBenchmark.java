@@ -0,0 +1,83 @@
+package seedu.gigachad;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gigachad.BinaryTaskFormat;
+import gigachad.Storage;
+import gigachad.TaskList;
+import gigachad.task.Task;
+
+/**
+ * Measures cold start, a full {@link Storage#initStorage} of an existing file, and a full snapshot save,
+ * for both the text and binary formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"text", "binary"})
+    public String format;
+
+    private Path directory;
+    private Path filePath;
+    private TaskList taskList;
+    private Storage storage;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stdout = BenchmarkTasks.silenceStdout();
+        directory = Files.createTempDirectory("gigachad-bench");
+        filePath = directory.resolve("tasks.txt");
+        ArrayList<Task> tasks = BenchmarkTasks.createTasks(taskCount);
+        if (format.equals("binary")) {
+            BinaryTaskFormat.write(filePath, tasks);
+        } else {
+            BenchmarkTasks.writeTaskFile(filePath, taskCount);
+        }
+        taskList = new TaskList(tasks);
+        storage = new Storage(filePath);
+        storage.setBinarySnapshot(format.equals("binary"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(stdout);
+        BenchmarkTasks.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public ArrayList<Task> coldLoad() {
+        return new Storage(filePath).initStorage();
+    }
+
+    @Benchmark
+    public void save() {
+        storage.saveToStorage(taskList);
+    }
+}
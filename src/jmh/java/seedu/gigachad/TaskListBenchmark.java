@@ -0,0 +1,84 @@
+package seedu.gigachad;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gigachad.Command;
+import gigachad.Parser;
+import gigachad.TaskList;
+import gigachad.Ui;
+import gigachad.exception.GigachadException;
+
+/**
+ * Measures the latency of read-only commands: the indexed searches and rendering the whole list.
+ * The indexes are built during setup, so only the queries themselves are timed.
+ * These commands never touch storage, so none is passed to them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    private TaskList taskList;
+    private Ui ui;
+    private Command find;
+    private Command fuzzyFind;
+    private Command due;
+    private Command busy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws GigachadException {
+        taskList = new TaskList(BenchmarkTasks.createTasks(taskCount));
+        ui = new Ui();
+        find = Parser.parse("find book " + (taskCount / 2 / 3 * 3));
+        fuzzyFind = Parser.parse("find~ asignment " + (taskCount / 2) + " /top 5");
+        due = Parser.parse("due 2025-06-01 2025-06-02");
+        busy = Parser.parse("busy 2025-06-01 1200");
+        find.execute(taskList, ui, null);
+        fuzzyFind.execute(taskList, ui, null);
+        due.execute(taskList, ui, null);
+        busy.execute(taskList, ui, null);
+    }
+
+    @Benchmark
+    public String find() throws GigachadException {
+        return find.execute(taskList, ui, null);
+    }
+
+    @Benchmark
+    public String fuzzyFind() throws GigachadException {
+        return fuzzyFind.execute(taskList, ui, null);
+    }
+
+    @Benchmark
+    public String due() throws GigachadException {
+        return due.execute(taskList, ui, null);
+    }
+
+    @Benchmark
+    public String busy() throws GigachadException {
+        return busy.execute(taskList, ui, null);
+    }
+
+    @Benchmark
+    public String listTasks() {
+        return ui.listTasks(taskList);
+    }
+}
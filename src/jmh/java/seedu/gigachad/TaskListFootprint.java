@@ -0,0 +1,95 @@
+package seedu.gigachad;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import gigachad.CompactTaskList;
+import gigachad.TaskList;
+
+/**
+ * Compares the heap taken by a {@link TaskList} and a {@link CompactTaskList} holding the same tasks,
+ * with descriptions on and off the heap, along with the time taken to fill each, list every task and search it,
+ * and how long a full collection pauses for with the list alive.
+ * Heap use is hard to measure from inside JMH, so this runs as a plain program, one list at a time:
+ *
+ * <pre>
+ * java -Xmx6g -cp build/classes/java/main:build/classes/java/jmh seedu.gigachad.TaskListFootprint [taskCount]
+ * </pre>
+ *
+ * The task count defaults to 10 million.
+ */
+public final class TaskListFootprint {
+    private static final int DEFAULT_TASK_COUNT = 10_000_000;
+
+    private TaskListFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASK_COUNT;
+        long baseline = usedHeap();
+        measure("TaskList", new TaskList(), taskCount, baseline);
+        measure("CompactTaskList", new CompactTaskList(), taskCount, baseline);
+        measure("off-heap", new CompactTaskList(true), taskCount, baseline);
+    }
+
+    private static void measure(String name, TaskList taskList, int taskCount, long baseline) {
+        long gcBefore = totalGcMillis();
+        long started = System.nanoTime();
+        for (int i = 0; i < taskCount; i++) {
+            taskList.addTask(BenchmarkTasks.createTask(i));
+        }
+        long filledMillis = (System.nanoTime() - started) / 1_000_000;
+        long heapBytes = usedHeap() - baseline;
+        long directBytes = directMemory();
+
+        started = System.nanoTime();
+        System.gc();
+        long pauseMillis = (System.nanoTime() - started) / 1_000_000;
+
+        started = System.nanoTime();
+        long characters = 0;
+        for (int i = 0; i < taskList.size(); i++) {
+            characters += taskList.getTask(i).toString().length();
+        }
+        long listedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        started = System.nanoTime();
+        int found = taskList.findTasks("book " + (taskCount / 2 / 3 * 3)).size();
+        long foundMillis = (System.nanoTime() - started) / 1_000_000;
+
+        System.out.printf(Locale.ROOT, "%-16s %,d tasks: %,d MB heap (%.1f bytes per task) + %,d MB direct,"
+                        + " filled in %,d ms, full GC %,d ms, listed %,d characters in %,d ms,"
+                        + " found %d in %,d ms, %,d ms in GC%n",
+                name, taskList.size(), heapBytes >> 20, (double) heapBytes / taskCount, directBytes >> 20,
+                filledMillis, pauseMillis, characters, listedMillis, found, foundMillis,
+                totalGcMillis() - gcBefore);
+    }
+
+    private static long directMemory() {
+        long bytes = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                bytes += pool.getMemoryUsed();
+            }
+        }
+        return bytes;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long totalGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,64 @@
+package seedu.gigachad;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gigachad.task.TimestampCodec;
+
+/**
+ * Compares {@link TimestampCodec} with building a formatter per call, as the task types used to,
+ * and with a shared {@link DateTimeFormatter}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimestampCodecBenchmark {
+    private final LocalDateTime dateTime = LocalDateTime.of(2025, 10, 10, 18, 30);
+    private final String text = "2025-10-10 1830";
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    @Benchmark
+    public String formatWithNewFormatter() {
+        return dateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+    }
+
+    @Benchmark
+    public String formatWithSharedFormatter() {
+        return dateTime.format(TimestampCodec.FORMATTER);
+    }
+
+    @Benchmark
+    public String formatWithCodec() {
+        return TimestampCodec.format(dateTime);
+    }
+
+    @Benchmark
+    public int formatIntoBufferWithCodec() {
+        buffer.setLength(0);
+        return TimestampCodec.appendTo(buffer, dateTime).length();
+    }
+
+    @Benchmark
+    public LocalDateTime parseWithFormatter() {
+        return LocalDateTime.parse(text, TimestampCodec.FORMATTER);
+    }
+
+    @Benchmark
+    public LocalDateTime parseWithCodec() {
+        return TimestampCodec.parse(text);
+    }
+}
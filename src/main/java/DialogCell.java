@@ -0,0 +1,44 @@
+import java.util.function.IntConsumer;
+
+import gigachad.ChatMessage;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * Row of the conversation list. The list only makes enough rows to fill the screen and moves them
+ * from message to message as it scrolls, so each row keeps one {@link DialogBox} and reuses it.
+ */
+public class DialogCell extends ListCell<ChatMessage> {
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image gigachadImage;
+    private final IntConsumer onShown;
+
+    /**
+     * Creates an empty row.
+     *
+     * @param userImage the face shown next to the user's messages
+     * @param gigachadImage the face shown next to gigachad's replies
+     * @param onShown what to do with the index of each message the row is moved to
+     */
+    public DialogCell(Image userImage, Image gigachadImage, IntConsumer onShown) {
+        this.userImage = userImage;
+        this.gigachadImage = gigachadImage;
+        this.onShown = onShown;
+        // lets the row take the width of the list instead of the dialog box's preferred width
+        setPrefWidth(0);
+        dialogBox.prefWidthProperty().bind(widthProperty());
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        dialogBox.show(message, message.isUser() ? userImage : gigachadImage);
+        setGraphic(dialogBox);
+        onShown.accept(getIndex());
+    }
+}
@@ -0,0 +1,35 @@
+import java.nio.file.Path;
+
+import gigachad.Ui;
+import gigachad.UserInterface;
+import javafx.animation.PauseTransition;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+/**
+ * JavaFX user interface that shows the conversation in a window.
+ * Saying bye leaves the goodbye message up for a moment before the window closes.
+ */
+public class FxUi extends Ui implements UserInterface {
+    /**
+     * Closes the window after a pause. Commands run off the JavaFX application thread, so the pause is started
+     * on that thread.
+     */
+    @Override
+    protected void onExit() {
+        Platform.runLater(() -> {
+            PauseTransition delay = new PauseTransition(Duration.seconds(1.5));
+            delay.setOnFinished(event -> Platform.exit());
+            delay.play();
+        });
+    }
+
+    /**
+     * Starts the JavaFX toolkit and opens the main window, returning once the window is closed.
+     */
+    @Override
+    public void run(Path filePath) {
+        Application.launch(Main.class, filePath.toString());
+    }
+}
@@ -1,10 +1,47 @@
-import javafx.application.Application;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import gigachad.ConsoleUi;
+import gigachad.Gigachad;
+import gigachad.UserInterface;
 
 /**
- * A launcher class to workaround classpath issues.
+ * A launcher class to workaround classpath issues, which also picks the user interface.
+ * The terminal is used when started with {@code --cli}, or when there is no display to open a window on,
+ * and the JavaFX window otherwise. {@code --script <file>} runs a script without either.
+ * Only the chosen interface is loaded, so the terminal never pays for starting JavaFX.
  */
 public class Launcher {
+    private static final String CLI_OPTION = "--cli";
+    private static final String GUI_OPTION = "--gui";
+
     public static void main(String[] args) {
-        Application.launch(Main.class, args);
+        if (args.length > 0 && args[0].equals(Gigachad.SCRIPT_OPTION)) {
+            Gigachad.main(args);
+            return;
+        }
+        Path filePath = Paths.get(Gigachad.DEFAULT_FILE_PATH);
+        // declared as the interface, so the class verifier has no reason to load FxUi unless it is chosen
+        UserInterface ui;
+        if (isConsole(args)) {
+            ui = new ConsoleUi();
+        } else {
+            ui = new FxUi();
+        }
+        ui.run(filePath);
+    }
+
+    private static boolean isConsole(String[] args) {
+        if (Arrays.asList(args).contains(CLI_OPTION)) {
+            return true;
+        }
+        if (Arrays.asList(args).contains(GUI_OPTION)) {
+            return false;
+        }
+        // on Linux and other Unix systems, a window needs an X11 or Wayland display
+        String os = System.getProperty("os.name", "").toLowerCase();
+        boolean isDesktopOs = os.startsWith("windows") || os.startsWith("mac");
+        return !isDesktopOs && System.getenv("DISPLAY") == null && System.getenv("WAYLAND_DISPLAY") == null;
     }
 }
@@ -1,6 +1,9 @@
 import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
+import gigachad.ChatLog;
 import gigachad.Gigachad;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -10,23 +13,47 @@ import javafx.stage.Stage;
 
 /**
  * A GUI for gigachad using FXML.
+ * The window is shown before the tasks are loaded, which happens in the background.
+ * The conversation is kept in a {@link ChatLog} next to the tasks file, so it is still there the next time.
  */
 public class Main extends Application {
 
-    private Gigachad gigachad = new Gigachad(Paths.get("data/tasks.txt"));
+    private MainWindow mainWindow;
 
     @Override
     public void start(Stage stage) {
+        List<String> args = getParameters().getRaw();
+        Path filePath = Paths.get(args.isEmpty() ? Gigachad.DEFAULT_FILE_PATH : args.get(0));
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             AnchorPane ap = fxmlLoader.load();
             Scene scene = new Scene(ap);
             stage.setScene(scene);
             stage.setTitle("Gigachad");
-            fxmlLoader.<MainWindow>getController().setGigachad(gigachad);
+            mainWindow = fxmlLoader.<MainWindow>getController();
+            openChatLog(filePath.resolveSibling(ChatLog.DEFAULT_FILE_NAME));
             stage.show();
+            mainWindow.loadGigachad(progressListener -> new Gigachad(filePath, new FxUi(), progressListener));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Shows the conversation kept in the given log, carrying on without one if it cannot be opened.
+     */
+    private void openChatLog(Path logPath) {
+        try {
+            mainWindow.setChatLog(new ChatLog(logPath));
+        } catch (IOException e) {
+            System.out.println("An error occurred while opening the chat log: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.close();
+        }
+    }
 }
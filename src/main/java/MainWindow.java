@@ -1,51 +1,409 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import gigachad.ChatLog;
+import gigachad.ChatMessage;
 import gigachad.Gigachad;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 /**
  * Controller for the main GUI.
+ * Commands run one at a time, in the order they were sent, on a background thread, so that saving
+ * or listing a large number of tasks never freezes the window.
+ * Tasks are loaded on that thread too, so the window opens straight away, and commands sent while the tasks
+ * are loading wait their turn and run in order once they have loaded.
+ * The conversation is shown in a virtualized list, which only lays out the messages on screen,
+ * and only the most recent messages are kept.
+ * With a {@link ChatLog}, every message is also written to disk on a background thread. The window opens with
+ * the latest page of the log, and older pages are read in the background as the user scrolls to the top.
+ * Reading an older page drops as many of the newest messages, which are read back as the user scrolls down again,
+ * so the list stays the same size however far back the user scrolls.
  */
 public class MainWindow extends AnchorPane {
+    /** Set this system property to the number of messages to keep in the window. */
+    public static final String HISTORY_LIMIT_PROPERTY = "gigachad.historyLimit";
+    public static final int DEFAULT_HISTORY_LIMIT = 1000;
+    /** How many messages to read from the chat log at a time. */
+    private static final int PAGE_SIZE = 100;
+    /** How long a command may run before the busy indicator appears. */
+    private static final Duration BUSY_DELAY = Duration.millis(150);
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
+    @FXML
+    private Label loadingStatus;
 
+    /** Only used on the command runner thread. */
     private Gigachad gigachad;
+    /** Why Duke could not be loaded, or null if it has loaded or is still loading. */
+    private volatile String loadFailure;
+    private final ObservableList<ChatMessage> messages = FXCollections.observableArrayList();
+    private final int historyLimit = Math.max(1, Integer.getInteger(HISTORY_LIMIT_PROPERTY, DEFAULT_HISTORY_LIMIT));
+    private final ExecutorService commandRunner = Executors.newSingleThreadExecutor(daemon("command-runner"));
+    private final ExecutorService historyKeeper = Executors.newSingleThreadExecutor(daemon("history-keeper"));
+    private final PauseTransition busyDelay = new PauseTransition(BUSY_DELAY);
+    private int runningCommands = 0;
+
+    private ChatLog chatLog;
+    /** Where the oldest message in the list begins in the chat log. */
+    private long olderMessagesEnd = 0;
+    /** Where the message after the newest one in the list begins in the chat log. */
+    private long newerMessagesStart = 0;
+    /** Where the next message will begin in the chat log, once every message queued for it is written. */
+    private long chatLogEnd = 0;
+    private boolean isLoadingOlderMessages = false;
+    private boolean isLoadingNewerMessages = false;
+    /** Messages sent while the latest page is read back, to show after it, or null if it is not being read. */
+    private List<ChatMessage> waitingForLatest;
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image dukeImage = new Image(this.getClass().getResourceAsStream("/images/DaGigachad.png"));
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        dialogList.setItems(messages);
+        dialogList.setCellFactory(list -> new DialogCell(userImage, dukeImage, this::messageShown));
+        dialogList.setFocusTraversable(false);
+        busyDelay.setOnFinished(event -> busyIndicator.setVisible(runningCommands > 0));
     }
 
-    /** Injects the Duke instance */
-    public void setGigachad(Gigachad g) {
-        gigachad = g;
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Loads the Duke instance on the background thread, showing each stage of loading until it is done.
+     * If loading fails, the reason is shown, and every command is answered with it instead of being run.
+     *
+     * @param loader builds the Duke instance, telling the given listener about each stage of loading
+     */
+    public void loadGigachad(Function<Consumer<String>, Gigachad> loader) {
+        loadingStatus.setVisible(true);
+        startBusy();
+        commandRunner.execute(() -> {
+            try {
+                gigachad = loader.apply(stage -> Platform.runLater(() -> loadingStatus.setText(stage)));
+                Platform.runLater(() -> loadingStatus.setVisible(false));
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                loadFailure = "Your tasks could not be loaded, so no commands can run: " + e;
+                Platform.runLater(() -> {
+                    loadingStatus.setText("Could not load your tasks");
+                    append(new ChatMessage(false, loadFailure));
+                });
+            } finally {
+                Platform.runLater(this::stopBusy);
+            }
+        });
+    }
+
+    /**
+     * Keeps the conversation in the given log from now on, and shows its latest page.
+     * Only one page is read, so this takes the same time however long the log is.
+     */
+    public void setChatLog(ChatLog log) {
+        chatLog = log;
+        try {
+            ChatLog.Page page = log.readLatest(PAGE_SIZE);
+            messages.setAll(page.messages());
+            olderMessagesEnd = page.start();
+            newerMessagesStart = page.end();
+            chatLogEnd = page.end();
+            dialogList.scrollTo(messages.size() - 1);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Lets the command already running finish, closes Duke so that its tasks are written out,
+     * then waits for the messages still being written to the chat log, and closes it.
+     */
+    public void close() {
+        commandRunner.execute(() -> {
+            if (gigachad != null) {
+                gigachad.close();
+            }
+        });
+        commandRunner.shutdown();
+        historyKeeper.shutdown();
+        try {
+            commandRunner.awaitTermination(5, TimeUnit.SECONDS);
+            historyKeeper.awaitTermination(5, TimeUnit.SECONDS);
+            if (chatLog != null) {
+                chatLog.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Echoes the user input in the conversation straight away, and hands the command to the background thread.
+     * Duke's reply is appended once the command has run, or an error message if it failed unexpectedly.
+     * Clears the user input after sending.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = gigachad.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getGigachadDialog(response, dukeImage)
-        );
+        append(new ChatMessage(true, input));
         userInput.clear();
+        if (loadFailure != null) {
+            append(new ChatMessage(false, loadFailure));
+            return;
+        }
+        startBusy();
+        commandRunner.execute(() -> {
+            String response = "Something went wrong while running that command.";
+            try {
+                // commands queued while loading find no Duke if loading failed
+                response = gigachad == null ? loadFailure : gigachad.getResponse(input);
+            } catch (RuntimeException e) {
+                // an unexpected failure still gets a reply, so the busy indicator never spins forever
+                e.printStackTrace();
+                response += " " + e;
+            } finally {
+                String reply = response;
+                Platform.runLater(() -> showResponse(reply));
+            }
+        });
+    }
+
+    /**
+     * Appends Duke's reply to a command, and hides the busy indicator once no command is left running.
+     * Replies arrive in the order the commands were sent, as the background thread runs one command at a time.
+     */
+    private void showResponse(String response) {
+        append(new ChatMessage(false, response));
+        stopBusy();
+    }
+
+    private void startBusy() {
+        if (runningCommands++ == 0) {
+            busyDelay.playFromStart();
+        }
+    }
+
+    private void stopBusy() {
+        if (--runningCommands == 0) {
+            busyDelay.stop();
+            busyIndicator.setVisible(false);
+        }
+    }
+
+    /**
+     * Adds a message to the end of the conversation, queues it to be written to the chat log, and scrolls to it.
+     * If the newest messages were dropped to make room for older ones, the latest page is read back first,
+     * so that the conversation shown has no gap.
+     * Once there are too many messages, the oldest are dropped in one go rather than one per new message,
+     * so that appending takes constant time on average however long the session runs.
+     * Dropped messages stay in the chat log, and are read back if the user scrolls up to them again.
+     */
+    private void append(ChatMessage message) {
+        if (chatLog != null) {
+            historyKeeper.execute(() -> {
+                try {
+                    chatLog.append(message);
+                } catch (IOException e) {
+                    System.out.println(e.getMessage());
+                }
+            });
+            if (waitingForLatest == null && newerMessagesStart != chatLogEnd) {
+                loadLatestMessages();
+            }
+            chatLogEnd += ChatLog.recordLength(message);
+            if (waitingForLatest != null) {
+                waitingForLatest.add(message);
+                return;
+            }
+            newerMessagesStart = chatLogEnd;
+        }
+        messages.add(message);
+        if (messages.size() > historyLimit + historyLimit / 8) {
+            dropOldest(messages.size() - historyLimit);
+        }
+        dialogList.scrollTo(messages.size() - 1);
+    }
+
+    /**
+     * Drops the given number of messages from the top of the list.
+     */
+    private void dropOldest(int count) {
+        List<ChatMessage> dropped = messages.subList(0, count);
+        if (chatLog != null) {
+            // messages are logged in the order they are shown, so the dropped ones sit right before the rest
+            for (ChatMessage droppedMessage : dropped) {
+                olderMessagesEnd += ChatLog.recordLength(droppedMessage);
+            }
+        }
+        dropped.clear();
+    }
+
+    /**
+     * Drops the given number of messages from the bottom of the list.
+     */
+    private void dropNewest(int count) {
+        List<ChatMessage> dropped = messages.subList(messages.size() - count, messages.size());
+        for (ChatMessage droppedMessage : dropped) {
+            newerMessagesStart -= ChatLog.recordLength(droppedMessage);
+        }
+        dropped.clear();
+    }
+
+    /**
+     * Reads more of the chat log when the list shows its first or last message.
+     */
+    private void messageShown(int index) {
+        if (index == 0) {
+            loadOlderMessages();
+        } else if (index == messages.size() - 1) {
+            loadNewerMessages();
+        }
+    }
+
+    /**
+     * Reads the page of the chat log before the oldest message shown, in the background, unless there is none
+     * or it is already being read.
+     */
+    private void loadOlderMessages() {
+        if (chatLog == null || olderMessagesEnd == 0 || isLoadingOlderMessages || waitingForLatest != null) {
+            return;
+        }
+        isLoadingOlderMessages = true;
+        long end = olderMessagesEnd;
+        historyKeeper.execute(() -> {
+            try {
+                ChatLog.Page page = chatLog.readBefore(end, PAGE_SIZE);
+                Platform.runLater(() -> showOlderMessages(page));
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Adds a page of older messages above the ones shown, keeping the message that was at the top in view,
+     * and drops as many of the newest messages as needed to stay within the limit.
+     * The page is dropped if the list changed at the top while it was being read, as it no longer fits.
+     */
+    private void showOlderMessages(ChatLog.Page page) {
+        isLoadingOlderMessages = false;
+        if (page.end() != olderMessagesEnd || waitingForLatest != null) {
+            return;
+        }
+        messages.addAll(0, page.messages());
+        olderMessagesEnd = page.start();
+        if (messages.size() > historyLimit) {
+            dropNewest(messages.size() - historyLimit);
+        }
+        dialogList.scrollTo(page.messages().size());
+    }
+
+    /**
+     * Reads the page of the chat log after the newest message shown, in the background, unless the newest
+     * message in the log is already shown or the page is already being read.
+     * Messages are written to the log in the order they are queued, so the page is read only once they are there.
+     */
+    private void loadNewerMessages() {
+        if (chatLog == null || newerMessagesStart == chatLogEnd || isLoadingNewerMessages
+                || waitingForLatest != null) {
+            return;
+        }
+        isLoadingNewerMessages = true;
+        long start = newerMessagesStart;
+        historyKeeper.execute(() -> {
+            try {
+                ChatLog.Page page = chatLog.readAfter(start, PAGE_SIZE);
+                Platform.runLater(() -> showNewerMessages(page));
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Adds a page of newer messages below the ones shown, keeping the message that was at the bottom in view,
+     * and drops as many of the oldest messages as needed to stay within the limit.
+     * The page is dropped if the list changed at the bottom while it was being read, as it no longer fits.
+     */
+    private void showNewerMessages(ChatLog.Page page) {
+        isLoadingNewerMessages = false;
+        if (page.start() != newerMessagesStart || waitingForLatest != null) {
+            return;
+        }
+        int lastShown = messages.size() - 1;
+        messages.addAll(page.messages());
+        newerMessagesStart = page.end();
+        int excess = Math.max(0, messages.size() - historyLimit);
+        if (excess > 0) {
+            dropOldest(excess);
+        }
+        dialogList.scrollTo(Math.max(0, lastShown - excess));
+    }
+
+    /**
+     * Reads the latest page of the chat log in the background, to show in place of the messages in the list.
+     * Messages sent in the meantime are held back and shown after it.
+     */
+    private void loadLatestMessages() {
+        waitingForLatest = new ArrayList<>();
+        long end = chatLogEnd;
+        historyKeeper.execute(() -> {
+            ChatLog.Page page;
+            try {
+                page = chatLog.readBefore(end, PAGE_SIZE);
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+                page = new ChatLog.Page(List.of(), end, end);
+            }
+            ChatLog.Page latest = page;
+            Platform.runLater(() -> showLatestMessages(latest));
+        });
+    }
+
+    /**
+     * Shows the latest page of the chat log followed by the messages sent while it was read,
+     * in place of the messages in the list.
+     */
+    private void showLatestMessages(ChatLog.Page page) {
+        messages.setAll(page.messages());
+        messages.addAll(waitingForLatest);
+        waitingForLatest = null;
+        olderMessagesEnd = page.start();
+        newerMessagesStart = chatLogEnd;
+        if (messages.size() > historyLimit) {
+            dropOldest(messages.size() - historyLimit);
+        }
+        dialogList.scrollTo(messages.size() - 1);
     }
 }
@@ -0,0 +1,158 @@
+package gigachad;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import gigachad.task.Deadline;
+import gigachad.task.Event;
+import gigachad.task.Task;
+import gigachad.task.ToDo;
+
+/**
+ * Reads and writes the compact binary snapshot format.
+ * A file starts with the magic bytes "GCTB" and a format version, followed by one record per task:
+ * the journal key (-1 if none), a type byte ('T', 'D' or 'E'), a done flag byte,
+ * the length-prefixed UTF-8 description, then the dates as epoch-minute longs ("by" for deadlines,
+ * "from" and "to" for events).
+ */
+public class BinaryTaskFormat {
+    public static final short VERSION = 1;
+    private static final byte[] MAGIC = {'G', 'C', 'T', 'B'};
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Returns whether the given file starts with the binary snapshot header.
+     *
+     * @param filePath the file to check
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinary(Path filePath) throws IOException {
+        try (InputStream in = Files.newInputStream(filePath)) {
+            return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+        }
+    }
+
+    /**
+     * Reads every task in the given binary snapshot and appends them to the given list.
+     * A truncated or corrupted file keeps the tasks read before the damage.
+     *
+     * @param filePath the binary snapshot to read
+     * @param listOfTasks the list to append the loaded tasks to
+     * @throws IOException if the file cannot be read or has an unsupported version
+     */
+    public static void read(Path filePath, ArrayList<Task> listOfTasks) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(filePath), BUFFER_SIZE))) {
+            if (!Arrays.equals(in.readNBytes(MAGIC.length), MAGIC)) {
+                throw new IOException("Not a binary task snapshot: " + filePath);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary task snapshot version: " + version);
+            }
+
+            while (true) {
+                long key;
+                try {
+                    key = in.readLong();
+                } catch (EOFException e) {
+                    return;
+                }
+                Task task = readTask(in);
+                if (task == null) {
+                    System.out.println("Invalid format! Corrupted file!");
+                    return;
+                }
+                task.setKey(key);
+                listOfTasks.add(task);
+            }
+        } catch (EOFException e) {
+            System.out.println("Invalid format! Corrupted file!");
+        }
+    }
+
+    private static Task readTask(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        boolean isDone = in.readBoolean();
+        int length = in.readInt();
+        if (length <= 0) {
+            return null;
+        }
+        byte[] descriptionBytes = in.readNBytes(length);
+        if (descriptionBytes.length < length) {
+            throw new EOFException();
+        }
+        String description = new String(descriptionBytes, StandardCharsets.UTF_8);
+
+        Task task = switch (type) {
+        case 'T' -> new ToDo(description);
+        case 'D' -> new Deadline(description, fromEpochMinutes(in.readLong()));
+        case 'E' -> new Event(description, fromEpochMinutes(in.readLong()), fromEpochMinutes(in.readLong()));
+        default -> null;
+        };
+        if (task != null && isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Writes the given tasks to a binary snapshot, replacing the file if it exists.
+     *
+     * @param filePath the file to write
+     * @param snapshotTasks the tasks to write, in order
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path filePath, Iterable<Task> snapshotTasks) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(filePath), BUFFER_SIZE))) {
+            out.write(MAGIC);
+            out.writeShort(VERSION);
+            for (Task task : snapshotTasks) {
+                writeTask(out, task);
+            }
+        }
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeLong(task.getKey());
+        if (task instanceof Event) {
+            out.writeByte('E');
+        } else if (task instanceof Deadline) {
+            out.writeByte('D');
+        } else {
+            out.writeByte('T');
+        }
+        out.writeBoolean(task.getIsDone());
+        out.writeInt(description.length);
+        out.write(description);
+
+        if (task instanceof Event event) {
+            out.writeLong(toEpochMinutes(event.getFrom()));
+            out.writeLong(toEpochMinutes(event.getTo()));
+        } else if (task instanceof Deadline deadline) {
+            out.writeLong(toEpochMinutes(deadline.getBy()));
+        }
+    }
+
+    private static long toEpochMinutes(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    static LocalDateTime fromEpochMinutes(long epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,215 @@
+package gigachad;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append-only log of the conversation shown in the window, kept on disk so that it outlives the app.
+ * Each message is stored as its length, a byte saying who sent it, its UTF-8 text and its length again.
+ * The trailing length lets the log be read backwards a page at a time from any message boundary,
+ * so showing the latest messages costs the same however long the log has grown. The leading length lets
+ * it be read forwards again from any message boundary.
+ */
+public class ChatLog implements Closeable {
+    public static final String DEFAULT_FILE_NAME = "chat.log";
+    private static final int HEADER_BYTES = Integer.BYTES + 1;
+    private static final int FOOTER_BYTES = Integer.BYTES;
+    private static final byte USER = 1;
+    private static final byte GIGACHAD = 0;
+
+    /**
+     * Messages read from the log, oldest first.
+     *
+     * @param messages the messages, in the order they were sent
+     * @param start where the oldest of them begins in the log, which is where to read the page before from
+     * @param end where the newest of them ends in the log, which is where to read the page after from
+     */
+    public record Page(List<ChatMessage> messages, long start, long end) {
+        /**
+         * Returns whether the log holds messages older than this page.
+         */
+        public boolean hasOlder() {
+            return start > 0;
+        }
+    }
+
+    private final FileChannel channel;
+    private long size;
+
+    /**
+     * Opens the log at the given path, creating it if it does not exist.
+     * A message cut short by a crash while it was being written is dropped.
+     *
+     * @param path the log file
+     * @throws IOException if the log cannot be opened
+     */
+    public ChatLog(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        size = channel.size();
+        if (size > 0 && readRecordBefore(size) == null) {
+            size = findEndOfLastRecord();
+            channel.truncate(size);
+        }
+    }
+
+    /**
+     * Returns how many bytes the given message takes up in the log.
+     */
+    public static int recordLength(ChatMessage message) {
+        return HEADER_BYTES + message.text().getBytes(StandardCharsets.UTF_8).length + FOOTER_BYTES;
+    }
+
+    /**
+     * Writes a message to the end of the log.
+     *
+     * @param message the message to keep
+     * @throws IOException if the message cannot be written
+     */
+    public synchronized void append(ChatMessage message) throws IOException {
+        byte[] text = message.text().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + text.length + FOOTER_BYTES);
+        record.putInt(text.length).put(message.isUser() ? USER : GIGACHAD).put(text).putInt(text.length).flip();
+        long position = size;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        size = position;
+    }
+
+    /**
+     * Returns the number of bytes in the log, which is where the next message will be written.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Reads the most recent messages.
+     *
+     * @param maxMessages the most messages to read
+     * @throws IOException if the log cannot be read
+     */
+    public Page readLatest(int maxMessages) throws IOException {
+        return readBefore(size(), maxMessages);
+    }
+
+    /**
+     * Reads the messages that end just before the given position, newest first, until enough have been read.
+     *
+     * @param end where to stop, which must be the start of a message or the end of the log
+     * @param maxMessages the most messages to read
+     * @throws IOException if the log cannot be read
+     */
+    public Page readBefore(long end, int maxMessages) throws IOException {
+        ArrayList<ChatMessage> messages = new ArrayList<>(Math.min(maxMessages, 256));
+        long start = end;
+        while (start > 0 && messages.size() < maxMessages) {
+            ChatMessage message = readRecordBefore(start);
+            if (message == null) {
+                throw new IOException("The chat log is corrupted before byte " + start);
+            }
+            messages.add(message);
+            start -= recordLength(message);
+        }
+        Collections.reverse(messages);
+        return new Page(messages, start, end);
+    }
+
+    /**
+     * Reads the messages that begin at the given position, oldest first, until enough have been read
+     * or the end of the log is reached.
+     *
+     * @param start where to begin, which must be the start of a message or the end of the log
+     * @param maxMessages the most messages to read
+     * @throws IOException if the log cannot be read
+     */
+    public Page readAfter(long start, int maxMessages) throws IOException {
+        ArrayList<ChatMessage> messages = new ArrayList<>(Math.min(maxMessages, 256));
+        long logSize = size();
+        long end = start;
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        while (end + HEADER_BYTES + FOOTER_BYTES <= logSize && messages.size() < maxMessages) {
+            header.clear();
+            readFully(header, end);
+            long next = end + HEADER_BYTES + header.getInt(0) + FOOTER_BYTES;
+            ChatMessage message = header.getInt(0) < 0 || next > logSize ? null : readRecordBefore(next);
+            if (message == null) {
+                throw new IOException("The chat log is corrupted after byte " + end);
+            }
+            messages.add(message);
+            end = next;
+        }
+        return new Page(messages, start, end);
+    }
+
+    /**
+     * Reads the message that ends at the given position, or returns null if there is no whole message there.
+     */
+    private ChatMessage readRecordBefore(long end) throws IOException {
+        if (end < HEADER_BYTES + FOOTER_BYTES) {
+            return null;
+        }
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+        readFully(footer, end - FOOTER_BYTES);
+        int textLength = footer.getInt(0);
+        long start = end - FOOTER_BYTES - textLength - HEADER_BYTES;
+        if (textLength < 0 || start < 0) {
+            return null;
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + textLength);
+        readFully(record, start);
+        byte sender = record.get(Integer.BYTES);
+        if (record.getInt(0) != textLength || (sender != USER && sender != GIGACHAD)) {
+            return null;
+        }
+        String text = new String(record.array(), HEADER_BYTES, textLength, StandardCharsets.UTF_8);
+        return new ChatMessage(sender == USER, text);
+    }
+
+    /**
+     * Walks the log from the start to find where its last whole message ends.
+     * Only needed after a crash, when the log cannot be read backwards from its end.
+     */
+    private long findEndOfLastRecord() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(header, position);
+            long next = position + HEADER_BYTES + header.getInt(0) + FOOTER_BYTES;
+            if (header.getInt(0) < 0 || next > size || readRecordBefore(next) == null) {
+                break;
+            }
+            position = next;
+        }
+        return position;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of the chat log");
+            }
+            position += read;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
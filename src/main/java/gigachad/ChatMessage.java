@@ -0,0 +1,10 @@
+package gigachad;
+
+/**
+ * One message in the conversation shown by a window.
+ *
+ * @param isUser whether the user sent the message, rather than gigachad
+ * @param text what the message says
+ */
+public record ChatMessage(boolean isUser, String text) {
+}
@@ -1,14 +1,16 @@
 package gigachad;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 
 import gigachad.exception.GigachadException;
 import gigachad.task.Deadline;
 import gigachad.task.Event;
 import gigachad.task.Task;
+import gigachad.task.TimestampCodec;
 import gigachad.task.ToDo;
 
 /**
@@ -17,26 +19,82 @@ import gigachad.task.ToDo;
  * adding, deleting, marking, and listing tasks.
  */
 public class Command {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
     private static final String DEADLINE_DELIMITER = "/by";
-    private static final String EVENT_FROM = " /from";
-    private static final String EVENT_TO = " /to";
+    private static final String EVENT_FROM = "/from";
+    private static final String EVENT_TO = "/to";
+    private static final String FUZZY_LIMIT_DELIMITER = "/top";
+    private static final int DEFAULT_FUZZY_LIMIT = 10;
+    private static final String PENDING_ONLY_FLAG = "/pending";
+    private static final String SELECT_DONE = "done";
+    private static final String SELECT_DUE_BEFORE = "due-before";
 
-    private final String command;
-    private final String[] parts;
-    private final String rawInput;
+    /**
+     * Runs one kind of command against the given Command's input.
+     */
+    @FunctionalInterface
+    private interface Handler {
+        String handle(Command command, TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException;
+    }
+
+    private record Route(String name, Handler handler) {
+    }
+
+    /** Every command word and its handler, matched without case and without copying the command word. */
+    private static final Route[] ROUTES = {
+        new Route("list", Command::handleList),
+        new Route("find", Command::handleFind),
+        new Route("find~", Command::handleFuzzyFind),
+        new Route("due", Command::handleDue),
+        new Route("busy", Command::handleBusy),
+        new Route("free", Command::handleFree),
+        new Route("delete", Command::handleDelete),
+        new Route("mark", Command::handleMark),
+        new Route("unmark", Command::handleUnmark),
+        new Route("todo", Command::handleTodo),
+        new Route("deadline", Command::handleDeadline),
+        new Route("event", Command::handleEvent),
+        new Route("help", Command::handleHelp),
+        new Route("bye", Command::handleBye),
+    };
+    private static final Handler INVALID = (command, listOfTasks, ui, storage) -> ui.invalidCommand();
+
+    private final Handler handler;
+    private final CommandInput input;
 
     /**
-     * Constructs a Command with the specified parameters.
+     * Constructs a Command from tokenized user input, choosing its handler from the command word.
      *
-     * @param type the command type
-     * @param rawInput the raw user input
-     * @param parts the parsed command parts
+     * @param input the tokenized user input, whose first token is the command word
      */
-    public Command(String type, String rawInput, String[] parts) {
-        this.command = type;
-        this.rawInput = rawInput;
-        this.parts = parts;
+    public Command(CommandInput input) {
+        this.input = input;
+        this.handler = input.size() == 0 ? INVALID : route(input);
+    }
+
+    /**
+     * Returns whether the given word starts one of the commands, in any case.
+     *
+     * @param word the word to check
+     */
+    public static boolean isCommandWord(String word) {
+        for (Route route : ROUTES) {
+            if (route.name().equalsIgnoreCase(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Handler route(CommandInput commandWord) {
+        if (commandWord.size() == 0) {
+            return INVALID;
+        }
+        for (Route route : ROUTES) {
+            if (commandWord.tokenEqualsIgnoreCase(0, route.name())) {
+                return route.handler();
+            }
+        }
+        return INVALID;
     }
 
     /**
@@ -50,139 +108,230 @@ public class Command {
      * @throws GigachadException if the command execution fails due to invalid input or other errors
      */
     public String execute(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
-        return switch (command) {
-        case "list" -> handleList(listOfTasks, ui);
-        case "find" -> handleFind(listOfTasks, ui);
-        case "delete" -> handleDelete(listOfTasks, ui, storage);
-        case "mark" -> handleMark(listOfTasks, ui, storage);
-        case "unmark" -> handleUnmark(listOfTasks, ui, storage);
-        case "todo" -> handleTodo(listOfTasks, ui, storage);
-        case "deadline" -> handleDeadline(listOfTasks, ui, storage);
-        case "event" -> handleEvent(listOfTasks, ui, storage);
-        case "help" -> handleHelp();
-        case "bye" -> ui.goodbyeUser();
-        default -> ui.invalidCommand();
-        };
+        return handler.handle(this, listOfTasks, ui, storage);
     }
 
     // --- Handlers for each command ---
 
-    private String handleList(TaskList listOfTasks, Ui ui) throws GigachadException {
+    private String handleList(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
         if (listOfTasks.isEmpty()) {
             throw new GigachadException("Empty list!");
         }
         return ui.listTasks(listOfTasks);
     }
 
-    private String handleFind(TaskList listOfTasks, Ui ui) throws GigachadException {
+    private String handleFind(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
         if (listOfTasks.isEmpty()) {
             throw new GigachadException("Empty list! Nothing can be found.");
         }
-        if (parts.length < 2) {
+        if (input.size() < 2) {
             throw new GigachadException("Input keyword to match!");
         }
 
-        assert rawInput.split(" ", 2).length >= 2 : "x should be more than 2";
-        String keyword = rawInput.split(" ", 2)[1];
-        ArrayList<Task> matches = new ArrayList<>();
-        for (Task task : listOfTasks.allTasks()) {
-            if (task.toString().contains(keyword)) {
-                matches.add(task);
+        String query = input.text(1, input.size());
+        return ui.findTasks(new TaskList(listOfTasks.findTasks(query)));
+    }
+
+    private String handleFuzzyFind(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
+        if (listOfTasks.isEmpty()) {
+            throw new GigachadException("Empty list! Nothing can be found.");
+        }
+        int limitIndex = input.indexOf(FUZZY_LIMIT_DELIMITER, 1);
+        int queryEnd = limitIndex == -1 ? input.size() : limitIndex;
+        if (queryEnd < 2) {
+            throw new GigachadException("Input keyword to match!");
+        }
+
+        int limit = DEFAULT_FUZZY_LIMIT;
+        if (limitIndex != -1) {
+            limit = limitIndex + 2 == input.size() ? input.parseNumber(limitIndex + 1) : -1;
+            if (limit == -1) {
+                throw new GigachadException("Invalid number of results! Use find~ <keyword> /top <number>");
+            }
+            if (limit == 0) {
+                throw new GigachadException("Number of results must be positive!");
+            }
+        }
+        String query = input.text(1, queryEnd);
+        return ui.findSimilarTasks(new TaskList(listOfTasks.findSimilarTasks(query, limit)));
+    }
+
+    private String handleDue(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
+        int argsEnd = input.size();
+        boolean isPendingOnly = argsEnd > 1 && input.tokenEquals(argsEnd - 1, PENDING_ONLY_FLAG);
+        if (isPendingOnly) {
+            argsEnd--;
+        }
+
+        // each bound is a date, optionally followed by a time
+        ArrayList<LocalDate> dates = new ArrayList<>(2);
+        ArrayList<LocalTime> times = new ArrayList<>(2);
+        int i = 1;
+        while (i < argsEnd) {
+            LocalDate date = TimestampCodec.parseDate(input.getInput(), input.start(i), input.end(i));
+            if (date == null) {
+                throw new GigachadException("Invalid date format! Use yyyy-MM-dd or yyyy-MM-dd HHmm.");
+            }
+            dates.add(date);
+            boolean hasTime = i + 1 < argsEnd && input.end(i + 1) - input.start(i + 1) == 4
+                    && input.parseNumber(i + 1) != -1;
+            if (hasTime) {
+                times.add(parseDateTime(i, i + 2).toLocalTime());
+                i += 2;
+            } else {
+                times.add(null);
+                i++;
             }
         }
-        return ui.findTasks(new TaskList(matches));
+        if (dates.isEmpty() || dates.size() > 2) {
+            throw new GigachadException("Invalid usage! Usage: due <date> or due <from> <to>, "
+                    + "optionally followed by /pending");
+        }
+
+        int last = dates.size() - 1;
+        LocalDateTime to = dates.get(last).atTime(times.get(last) == null ? LocalTime.of(23, 59) : times.get(last));
+        LocalDateTime from = dates.size() == 1
+                ? LocalDateTime.MIN
+                : dates.get(0).atTime(times.get(0) == null ? LocalTime.MIDNIGHT : times.get(0));
+        return ui.listDueTasks(new TaskList(listOfTasks.findDueTasks(from, to, isPendingOnly)));
+    }
+
+    private String handleBusy(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
+        if (input.size() != 3) {
+            throw new GigachadException("Invalid usage! Usage: busy <time>. Format: yyyy-MM-dd HHmm");
+        }
+        LocalDateTime time = parseDateTime(1, 3);
+        return ui.listBusyEvents(new TaskList(listOfTasks.findEventsAt(time)));
+    }
+
+    private String handleFree(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
+        if (input.size() != 5) {
+            throw new GigachadException("Invalid usage! Usage: free <from> <to>. Format: yyyy-MM-dd HHmm");
+        }
+        LocalDateTime from = parseDateTime(1, 3);
+        LocalDateTime to = parseDateTime(3, 5);
+        if (!to.isAfter(from)) {
+            throw new GigachadException("The end of the period must be after its start!");
+        }
+        return ui.listFreePeriods(listOfTasks.findFreePeriods(from, to));
     }
 
     private String handleDelete(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
-        int taskNumber = parseTaskNumber(listOfTasks);
-        Task removedTask = listOfTasks.deleteTask(taskNumber);
-        storage.saveToStorage(listOfTasks);
+        if (isSelectionArgument()) {
+            ArrayList<Task> removedTasks = listOfTasks.deleteTasks(parseSelection(listOfTasks));
+            storage.recordDeletes(listOfTasks, removedTasks);
+            return ui.deleteTasks(removedTasks.size(), listOfTasks);
+        }
+        Task removedTask;
+        if (isIdArgument()) {
+            long id = parseTaskId();
+            removedTask = listOfTasks.deleteTaskById(id);
+            if (removedTask == null) {
+                throw new GigachadException("No task has the ID #" + id + "!");
+            }
+        } else {
+            removedTask = listOfTasks.deleteTask(parseTaskNumber(listOfTasks));
+        }
+        storage.recordDelete(listOfTasks, removedTask);
         return ui.deleteTask(removedTask, listOfTasks);
     }
 
     private String handleMark(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
-        int taskNumber = parseTaskNumber(listOfTasks);
-        Task task = listOfTasks.getTask(taskNumber);
-        storage.saveToStorage(listOfTasks);
-        return ui.markTask(task);
+        if (isSelectionArgument()) {
+            return markSelection(listOfTasks, ui, storage, true);
+        }
+        Task task = getTargetTask(listOfTasks);
+        String response = ui.markTask(task);
+        listOfTasks.updateStatus(task);
+        storage.recordMark(listOfTasks, task);
+        return response;
     }
 
     private String handleUnmark(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
-        int taskNumber = parseTaskNumber(listOfTasks);
-        Task task = listOfTasks.getTask(taskNumber);
-        storage.saveToStorage(listOfTasks);
-        return ui.unmarkTask(task);
+        if (isSelectionArgument()) {
+            return markSelection(listOfTasks, ui, storage, false);
+        }
+        Task task = getTargetTask(listOfTasks);
+        String response = ui.unmarkTask(task);
+        listOfTasks.updateStatus(task);
+        storage.recordUnmark(listOfTasks, task);
+        return response;
+    }
+
+    private String markSelection(TaskList listOfTasks, Ui ui, Storage storage, boolean isDone)
+            throws GigachadException {
+        BitSet selected = parseSelection(listOfTasks);
+        ArrayList<Task> changedTasks = listOfTasks.markTasks(selected, isDone);
+        storage.recordMarks(listOfTasks, changedTasks, isDone);
+        return ui.markTasks(changedTasks.size(), selected.cardinality() - changedTasks.size(), isDone);
     }
 
     private String handleTodo(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
-        if (parts.length < 2 || rawInput.length() <= 4) {
+        if (input.size() < 2) {
             throw new GigachadException("Invalid usage! Usage: todo <task>");
         }
-        String description = rawInput.substring(5).trim();
+        String description = input.text(1, input.size());
         ToDo todo = new ToDo(description);
-        listOfTasks.addTask(todo);
-        storage.saveToStorage(listOfTasks);
-        return ui.addTask(todo, listOfTasks);
+        Task added = append(listOfTasks, storage, todo);
+        storage.recordAdd(listOfTasks, added);
+        return ui.addTask(added, listOfTasks);
     }
 
     private String handleDeadline(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
-        try {
-            int byIndex = rawInput.indexOf(DEADLINE_DELIMITER);
-            if (byIndex == -1) {
-                throw new GigachadException("Invalid usage! Usage: deadline <task> /by <due date>. "
-                        + "Format: yyyy-MM-dd HHmm");
-            }
-            String description = rawInput.substring(9, byIndex).trim(); // skip "deadline "
-            String dueDate = rawInput.substring(byIndex + DEADLINE_DELIMITER.length()).trim();
-
-            if (description.isEmpty() || dueDate.isEmpty()) {
-                throw new GigachadException("Deadline description or date missing.");
-            }
-
-            Deadline deadline = new Deadline(description, LocalDateTime.parse(dueDate, FORMATTER));
-            listOfTasks.addTask(deadline);
-            storage.saveToStorage(listOfTasks);
-            return ui.addTask(deadline, listOfTasks);
-        } catch (DateTimeParseException e) {
-            throw new GigachadException("Invalid date format! Use yyyy-MM-dd HHmm.");
+        int byIndex = input.indexOf(DEADLINE_DELIMITER, 1);
+        if (byIndex == -1) {
+            throw new GigachadException("Invalid usage! Usage: deadline <task> /by <due date>. "
+                    + "Format: yyyy-MM-dd HHmm");
+        }
+        if (byIndex == 1 || byIndex == input.size() - 1) {
+            throw new GigachadException("Deadline description or date missing.");
         }
+
+        String description = input.text(1, byIndex);
+        Deadline deadline = new Deadline(description, parseDateTime(byIndex + 1, input.size()));
+        Task added = append(listOfTasks, storage, deadline);
+        storage.recordAdd(listOfTasks, added);
+        return ui.addTask(added, listOfTasks);
     }
 
     private String handleEvent(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
-        try {
-            int firstSpace = rawInput.indexOf(' ');
-            int fromIndex = rawInput.indexOf(EVENT_FROM);
-            int toIndex = rawInput.indexOf(EVENT_TO);
-
-            if (firstSpace == -1 || fromIndex == -1 || toIndex == -1) {
-                throw new GigachadException("Invalid usage! Usage: event <task> /from <start> /to <end>. "
-                        + "Format: yyyy-MM-dd HHmm");
-            }
-
-            String description = rawInput.substring(firstSpace + 1, fromIndex).trim();
-            String from = rawInput.substring(fromIndex + 7, toIndex).trim();
-            String to = rawInput.substring(toIndex + 5).trim();
-
-            System.out.println(LocalDateTime.parse(from, FORMATTER));
-            System.out.println(LocalDateTime.parse(to, FORMATTER));
+        int fromIndex = input.indexOf(EVENT_FROM, 1);
+        int toIndex = fromIndex == -1 ? -1 : input.indexOf(EVENT_TO, fromIndex + 1);
+        if (fromIndex == -1 || toIndex == -1) {
+            throw new GigachadException("Invalid usage! Usage: event <task> /from <start> /to <end>. "
+                    + "Format: yyyy-MM-dd HHmm");
+        }
+        if (fromIndex == 1 || toIndex == fromIndex + 1 || toIndex == input.size() - 1) {
+            throw new GigachadException("Event description or dates missing.");
+        }
 
-            if (description.isEmpty() || from.isEmpty() || to.isEmpty()) {
-                throw new GigachadException("Event description or dates missing.");
-            }
+        String description = input.text(1, fromIndex);
+        Event event = new Event(description, parseDateTime(fromIndex + 1, toIndex),
+                parseDateTime(toIndex + 1, input.size()));
+        ArrayList<Task> conflicts = listOfTasks.findOverlappingEvents(event.getFrom(), event.getTo());
+        Task added = append(listOfTasks, storage, event);
+        storage.recordAdd(listOfTasks, added);
+        if (conflicts.isEmpty()) {
+            return ui.addTask(added, listOfTasks);
+        }
+        return ui.addTask(added, listOfTasks) + ui.warnEventConflicts(new TaskList(conflicts));
+    }
 
-            Event event = new Event(description,
-                    LocalDateTime.parse(from, FORMATTER),
-                    LocalDateTime.parse(to, FORMATTER));
-            listOfTasks.addTask(event);
-            storage.saveToStorage(listOfTasks);
-            return ui.addTask(event, listOfTasks);
+    /**
+     * Gives the task its ID, adds it and returns it as the list now holds it, which is not always the same object.
+     */
+    private static Task append(TaskList listOfTasks, Storage storage, Task task) {
+        storage.assignKey(task);
+        listOfTasks.addTask(task);
+        return listOfTasks.getLastTask();
+    }
 
-        } catch (DateTimeParseException e) {
-            throw new GigachadException("Invalid date format! Use yyyy-MM-dd HHmm.");
-        }
+    private String handleBye(TaskList listOfTasks, Ui ui, Storage storage) {
+        storage.flush();
+        return ui.goodbyeUser();
     }
 
-    private String handleHelp() {
+    private String handleHelp(TaskList listOfTasks, Ui ui, Storage storage) {
         return """
                 To add todos: todo <task>
                 To add deadlines: deadline <task> /by <due date>. Format: yyyy-MM-dd HHmm
@@ -191,19 +340,154 @@ public class Command {
                 To mark your todos as complete: mark <task number (find using list)>
                 To unmark your todos as complete: unmark <task number (find using list)>
                 To delete your todos: delete <task number (find using list)>
-                To search for todos with keywords: find <keyword>
+                To mark, unmark or delete by ID instead: mark #<id>, unmark #<id>, delete #<id> (IDs never change)
+                To mark, unmark or delete many at once: delete 3-500, mark 1,4,9-20, delete done, mark due-before <date>
+                To search for todos with keywords: find <keyword(s) or "phrase">
+                To search for todos with misspelt or partial keywords: find~ <keyword> /top <number of results>
+                To list deadlines due by a date: due <date> (add /pending to hide completed ones)
+                To list deadlines due between two dates: due <from> <to>. Format: yyyy-MM-dd or yyyy-MM-dd HHmm
+                To see which events are on at a time: busy <time>. Format: yyyy-MM-dd HHmm
+                To find free time between events: free <from> <to>. Format: yyyy-MM-dd HHmm
+                To run several commands together, all or none: todo a; todo b; mark 1
                 To exit: bye
                 """;
     }
 
+    /**
+     * Parses the tokens from one index up to another as a date and time in the yyyy-MM-dd HHmm format.
+     */
+    private LocalDateTime parseDateTime(int fromToken, int toToken) throws GigachadException {
+        LocalDateTime dateTime = TimestampCodec.parse(input.getInput(), input.start(fromToken), input.end(toToken - 1));
+        if (dateTime == null) {
+            throw new GigachadException("Invalid date format! Use yyyy-MM-dd HHmm.");
+        }
+        return dateTime;
+    }
+
+    /**
+     * Returns whether the command's argument names a task by ID, as in {@code mark #12}.
+     */
+    private boolean isIdArgument() {
+        return input.size() == 2 && input.getInput().charAt(input.start(1)) == '#';
+    }
+
+    private long parseTaskId() throws GigachadException {
+        long id = input.parseId(1);
+        if (id < 0) {
+            throw new GigachadException("Invalid task ID! IDs look like #12, and list shows each task's ID.");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the task named by the command's argument, either by its number in the list or by its ID.
+     */
+    private Task getTargetTask(TaskList listOfTasks) throws GigachadException {
+        if (!isIdArgument()) {
+            return listOfTasks.getTask(parseTaskNumber(listOfTasks));
+        }
+        long id = parseTaskId();
+        Task task = listOfTasks.getTaskById(id);
+        if (task == null) {
+            throw new GigachadException("No task has the ID #" + id + "!");
+        }
+        return task;
+    }
+
     private int parseTaskNumber(TaskList listOfTasks) throws GigachadException {
-        if (parts.length != 2) {
+        if (input.size() != 2) {
             throw new GigachadException("Invalid usage! Usage: <command> <task number>");
         }
-        int taskNumber = Integer.parseInt(parts[1]) - 1;
+        int taskNumber = input.parseNumber(1) - 1;
         if (taskNumber < 0 || taskNumber >= listOfTasks.size()) {
             throw new GigachadException("Invalid task number! You only have " + listOfTasks.size() + " tasks.");
         }
         return taskNumber;
     }
+
+    /**
+     * Returns whether the command's argument selects several tasks at once, as in {@code delete 3-500},
+     * {@code mark 1,4,9-20}, {@code delete done} or {@code mark due-before 2025-10-01}.
+     */
+    private boolean isSelectionArgument() {
+        if (input.size() < 2) {
+            return false;
+        }
+        if (input.tokenEquals(1, SELECT_DONE) || input.tokenEquals(1, SELECT_DUE_BEFORE)) {
+            return true;
+        }
+        String argument = input.text(1, input.size());
+        return argument.indexOf(',') >= 0 || argument.indexOf('-') >= 0;
+    }
+
+    /**
+     * Returns the positions of the tasks selected by the command's argument.
+     */
+    private BitSet parseSelection(TaskList listOfTasks) throws GigachadException {
+        if (input.tokenEquals(1, SELECT_DONE)) {
+            if (input.size() != 2) {
+                throw new GigachadException("Invalid usage! Usage: <command> done");
+            }
+            return listOfTasks.selectTasks(Task::getIsDone);
+        }
+        if (input.tokenEquals(1, SELECT_DUE_BEFORE)) {
+            LocalDateTime cutoff = parseCutoff();
+            return listOfTasks.selectTasks(task -> task instanceof Deadline deadline
+                    && deadline.getBy().isBefore(cutoff));
+        }
+        return parseRanges(listOfTasks.size());
+    }
+
+    /**
+     * Parses the date, and optional time, after {@code due-before}. A date alone means the start of that day.
+     */
+    private LocalDateTime parseCutoff() throws GigachadException {
+        if (input.size() == 4) {
+            return parseDateTime(2, 4);
+        }
+        LocalDate date = input.size() == 3
+                ? TimestampCodec.parseDate(input.getInput(), input.start(2), input.end(2))
+                : null;
+        if (date == null) {
+            throw new GigachadException("Invalid usage! Usage: <command> due-before <date>. "
+                    + "Format: yyyy-MM-dd or yyyy-MM-dd HHmm");
+        }
+        return date.atStartOfDay();
+    }
+
+    /**
+     * Parses a comma-separated list of task numbers and ranges of them, such as {@code 1,4,9-20}.
+     */
+    private BitSet parseRanges(int taskCount) throws GigachadException {
+        String argument = input.text(1, input.size()).replaceAll("\\s+", "");
+        BitSet selected = new BitSet(taskCount);
+        for (String part : argument.split(",", -1)) {
+            int dash = part.indexOf('-');
+            int first = parseListNumber(dash == -1 ? part : part.substring(0, dash));
+            int last = dash == -1 ? first : parseListNumber(part.substring(dash + 1));
+            if (first < 1 || last < first) {
+                throw new GigachadException("Invalid task range! Use numbers and ranges like 1,4,9-20.");
+            }
+            if (last > taskCount) {
+                throw new GigachadException("Invalid task number! You only have " + taskCount + " tasks.");
+            }
+            selected.set(first - 1, last);
+        }
+        return selected;
+    }
+
+    /**
+     * Parses a task number within a range, returning -1 if it is not a number.
+     */
+    private static int parseListNumber(String text) {
+        if (text.isEmpty() || text.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(text);
+    }
 }
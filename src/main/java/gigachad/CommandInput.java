@@ -0,0 +1,166 @@
+package gigachad;
+
+/**
+ * A tokenized view of one line of user input.
+ * The line is split on whitespace in a single pass, and each token is kept as a pair of offsets into
+ * the original String rather than as a copy, so reading a command allocates nothing beyond this object
+ * and its offset array. Token 0 is the command word; the rest are its arguments.
+ * Strings are only made when a handler asks for the text of a token or a run of tokens.
+ */
+public class CommandInput {
+    private final String input;
+    private final int[] bounds;
+    private final int tokenCount;
+
+    private CommandInput(String input, int[] bounds, int tokenCount) {
+        this.input = input;
+        this.bounds = bounds;
+        this.tokenCount = tokenCount;
+    }
+
+    /**
+     * Splits the input into whitespace-separated tokens.
+     *
+     * @param input one line of user input
+     * @return the tokenized view of the input
+     */
+    public static CommandInput tokenize(String input) {
+        int length = input.length();
+        int[] bounds = new int[8];
+        int tokenCount = 0;
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(input.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(input.charAt(i))) {
+                i++;
+            }
+            if (2 * tokenCount + 2 > bounds.length) {
+                int[] grown = new int[bounds.length * 2];
+                System.arraycopy(bounds, 0, grown, 0, bounds.length);
+                bounds = grown;
+            }
+            bounds[2 * tokenCount] = start;
+            bounds[2 * tokenCount + 1] = i;
+            tokenCount++;
+        }
+        return new CommandInput(input, bounds, tokenCount);
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Returns the number of tokens, including the command word.
+     */
+    public int size() {
+        return tokenCount;
+    }
+
+    public int start(int token) {
+        assert token < tokenCount : "token out of range";
+        return bounds[2 * token];
+    }
+
+    public int end(int token) {
+        assert token < tokenCount : "token out of range";
+        return bounds[2 * token + 1];
+    }
+
+    /**
+     * Returns whether the given token is exactly the given word.
+     */
+    public boolean tokenEquals(int token, String word) {
+        int length = end(token) - start(token);
+        return length == word.length() && input.regionMatches(start(token), word, 0, length);
+    }
+
+    /**
+     * Returns whether the given token is the given word, ignoring case.
+     */
+    public boolean tokenEqualsIgnoreCase(int token, String word) {
+        int length = end(token) - start(token);
+        return length == word.length() && input.regionMatches(true, start(token), word, 0, length);
+    }
+
+    /**
+     * Returns the index of the first token at or after the given one that is exactly the given word, or -1.
+     * Used to find delimiters such as {@code /by} without copying the input.
+     */
+    public int indexOf(String word, int fromToken) {
+        for (int token = fromToken; token < tokenCount; token++) {
+            if (tokenEquals(token, word)) {
+                return token;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the text of a single token.
+     */
+    public String text(int token) {
+        return input.substring(start(token), end(token));
+    }
+
+    /**
+     * Returns the original text spanning the tokens from one index up to, but not including, another,
+     * with the whitespace between them preserved. Returns an empty String if the range is empty.
+     */
+    public String text(int fromToken, int toToken) {
+        if (fromToken >= toToken) {
+            return "";
+        }
+        return input.substring(start(fromToken), end(toToken - 1));
+    }
+
+    /**
+     * Parses the given token as a non-negative decimal number without copying it.
+     *
+     * @return the number, or -1 if the token is not a number or is too large
+     */
+    public int parseNumber(int token) {
+        int value = 0;
+        int start = start(token);
+        int end = end(token);
+        if (end - start > 9) {
+            return -1;
+        }
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parses the given token as a task ID written as {@code #} followed by decimal digits.
+     *
+     * @return the ID, or -1 if the token is not an ID or is too large
+     */
+    public long parseId(int token) {
+        int start = start(token);
+        int end = end(token);
+        if (end - start < 2 || end - start > 19 || input.charAt(start) != '#') {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start + 1; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
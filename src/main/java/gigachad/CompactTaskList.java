@@ -0,0 +1,924 @@
+package gigachad;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+import gigachad.task.Deadline;
+import gigachad.task.Event;
+import gigachad.task.Task;
+import gigachad.task.ToDo;
+
+/**
+ * TaskList that stores its tasks in parallel primitive arrays instead of one object per task,
+ * for lists of millions of tasks.
+ * Each task occupies a slot holding its type and done flag, its journal key, its dates as epoch minutes and
+ * where its description starts in a shared {@link DescriptionArena}, which holds the descriptions in slot order.
+ * A separate array maps list positions to slots, so deleting a task only shifts ints and leaves every other
+ * slot where it was.
+ *
+ * <p>Task objects are made only when asked for, as views of a slot. A view reads its done status and key
+ * from the arrays and writes changes back to them, so marking a view marks the task in the list,
+ * and two views of the same slot are equal. A view stays valid until its task is deleted.
+ * Tasks deleted by ID only have their slot flagged, and their positions are dropped the next time positions
+ * are needed. Slots of deleted tasks are reclaimed once they outnumber the live ones, which rebuilds the indexes.
+ *
+ * <p>Descriptions can be kept outside the Java heap, so that even tens of millions of tasks leave the garbage
+ * collector little more than a few large arrays to trace. A view reads its description from the arena each time
+ * it is asked for it, so making a view decodes nothing. Keyword searches read the descriptions in place
+ * rather than building an index of views, and the other searches keep indexes of slots, which views are made
+ * from only for the tasks found. Slots of deleted tasks stay in those indexes and are skipped when read,
+ * until reclaiming the slots drops the indexes.
+ */
+public class CompactTaskList extends TaskList {
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final byte TYPE_MASK = 3;
+    private static final byte DONE = 4;
+    private static final byte DELETED = 8;
+    private static final int MIN_COMPACTION_SLOTS = 1024;
+    /** What views hand to the task constructors, which need a description, in place of decoding the real one. */
+    private static final String DESCRIPTION_IN_ARENA = "(read from the list when needed)";
+
+    private byte[] flags;
+    private long[] keys;
+    private long[] startMinutes;
+    private long[] endMinutes;
+    private int[] descriptionStarts;
+    private DescriptionArena descriptions;
+    private int slotCount = 0;
+    private int[] slotAt;
+    private int positionCount = 0;
+    private int size = 0;
+    private LongIntMap slotOfId;
+    private TrigramIndex trigramsBySlot;
+    /** Slots of deadlines by due time, in epoch minutes. */
+    private TreeMap<Long, Slots> deadlinesByDue;
+    /** Slots of events by start time, in epoch minutes. */
+    private TreeMap<Long, Slots> eventsByStart;
+    /** The longest any indexed event lasts, in minutes, which bounds how far back an overlapping event can start. */
+    private long longestEvent;
+
+    public CompactTaskList() {
+        this(16, false);
+    }
+
+    /**
+     * Creates an empty list.
+     *
+     * @param isOffHeap whether to keep descriptions in a direct buffer outside the Java heap
+     */
+    public CompactTaskList(boolean isOffHeap) {
+        this(16, isOffHeap);
+    }
+
+    /**
+     * Creates a list holding copies of the given tasks, in order.
+     *
+     * @param tasks the tasks to copy
+     */
+    public CompactTaskList(Collection<Task> tasks) {
+        this(tasks, false);
+    }
+
+    /**
+     * Creates a list holding copies of the given tasks, in order.
+     *
+     * @param tasks the tasks to copy
+     * @param isOffHeap whether to keep descriptions in a direct buffer outside the Java heap
+     */
+    public CompactTaskList(Collection<Task> tasks, boolean isOffHeap) {
+        this(tasks.size(), isOffHeap);
+        for (Task task : tasks) {
+            addTask(task);
+        }
+    }
+
+    private CompactTaskList(int capacity, boolean isOffHeap) {
+        super();
+        int slots = Math.max(16, capacity);
+        flags = new byte[slots];
+        keys = new long[slots];
+        startMinutes = new long[slots];
+        endMinutes = new long[slots];
+        descriptionStarts = new int[slots];
+        descriptions = isOffHeap ? DescriptionArena.offHeap(slots * 16) : DescriptionArena.onHeap(slots * 16);
+        slotAt = new int[slots];
+    }
+
+    @Override
+    public void addTask(Task task) {
+        if (slotCount == flags.length) {
+            growSlots(slotCount * 2);
+        }
+        if (positionCount == slotAt.length) {
+            slotAt = Arrays.copyOf(slotAt, positionCount * 2);
+        }
+        int slot = slotCount++;
+        String description = task.getDescription();
+        byte[] encoded = description.getBytes(StandardCharsets.UTF_8);
+        descriptionStarts[slot] = descriptions.append(encoded);
+        keys[slot] = task.getKey();
+        byte type = TODO;
+        if (task instanceof Event event) {
+            type = EVENT;
+            startMinutes[slot] = DeadlineIndex.toEpochMinute(event.getFrom());
+            endMinutes[slot] = DeadlineIndex.toEpochMinute(event.getTo());
+        } else if (task instanceof Deadline deadline) {
+            type = DEADLINE;
+            startMinutes[slot] = DeadlineIndex.toEpochMinute(deadline.getBy());
+        }
+        flags[slot] = (byte) (task.getIsDone() ? type | DONE : type);
+        slotAt[positionCount++] = slot;
+        size++;
+        if (slotOfId != null && task.getKey() >= 0) {
+            slotOfId.put(task.getKey(), slot);
+        }
+        if (trigramsBySlot != null) {
+            trigramsBySlot.add(slot, description);
+        }
+        if (type == DEADLINE && deadlinesByDue != null) {
+            addSlot(deadlinesByDue, startMinutes[slot], slot);
+        }
+        if (type == EVENT && eventsByStart != null) {
+            indexEvent(slot);
+        }
+        changed();
+    }
+
+    private void growSlots(int capacity) {
+        flags = Arrays.copyOf(flags, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        startMinutes = Arrays.copyOf(startMinutes, capacity);
+        endMinutes = Arrays.copyOf(endMinutes, capacity);
+        descriptionStarts = Arrays.copyOf(descriptionStarts, capacity);
+    }
+
+    @Override
+    public Task getTask(int index) {
+        removeTombstones();
+        return view(slotAt[Objects.checkIndex(index, size)]);
+    }
+
+    /**
+     * Removes the task at the given position.
+     *
+     * @return a standalone copy of the removed task, which no longer refers to this list
+     */
+    @Override
+    public Task deleteTask(int index) {
+        removeTombstones();
+        int slot = slotAt[Objects.checkIndex(index, size)];
+        System.arraycopy(slotAt, index + 1, slotAt, index, positionCount - index - 1);
+        positionCount--;
+        return deleteSlot(slot);
+    }
+
+    /**
+     * Removes the task with the given ID. Its position is left as a tombstone until positions are next needed.
+     *
+     * @return a standalone copy of the removed task, or null if there is none with that ID
+     */
+    @Override
+    public Task deleteTaskById(long id) {
+        int slot = slotOf(id);
+        return slot == LongIntMap.MISSING ? null : deleteSlot(slot);
+    }
+
+    /**
+     * Removes every task at the given positions in one pass over the positions, then reclaims their slots
+     * if they now outnumber the live ones.
+     *
+     * @return standalone copies of the removed tasks, in list order
+     */
+    @Override
+    public ArrayList<Task> deleteTasks(BitSet positions) {
+        removeTombstones();
+        assert positions.length() <= positionCount : "position out of range";
+        int removedCount = positions.cardinality();
+        ArrayList<Task> removedTasks = new ArrayList<>(removedCount);
+        int kept = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int slot = slotAt[i];
+            if (!positions.get(i)) {
+                slotAt[kept++] = slot;
+                continue;
+            }
+            removedTasks.add(copy(slot));
+            flags[slot] |= DELETED;
+            if (slotOfId != null && keys[slot] >= 0) {
+                slotOfId.remove(keys[slot]);
+            }
+        }
+        positionCount = kept;
+        size -= removedCount;
+        changed();
+        if (slotCount >= MIN_COMPACTION_SLOTS && slotCount - size > size) {
+            compact();
+        }
+        return removedTasks;
+    }
+
+    private Task deleteSlot(int slot) {
+        Task removedTask = copy(slot);
+        flags[slot] |= DELETED;
+        size--;
+        changed();
+        if (slotOfId != null && keys[slot] >= 0) {
+            slotOfId.remove(keys[slot]);
+        }
+        if (slotCount >= MIN_COMPACTION_SLOTS && slotCount - size > size) {
+            compact();
+        }
+        return removedTask;
+    }
+
+    private record CompactSnapshot(CompactTaskList owner, byte[] flags, long[] keys, long[] startMinutes,
+            long[] endMinutes, int[] descriptionStarts, DescriptionArena descriptions, int descriptionBytes,
+            int slotCount, int[] slotAt, int positionCount, int size) implements Snapshot {
+    }
+
+    /**
+     * Saves the list by copying its flags, keys and positions. Every other array and the description arena
+     * are only ever appended to or replaced, never changed in place, so the snapshot just keeps them.
+     */
+    @Override
+    public Snapshot snapshot() {
+        return new CompactSnapshot(this, flags.clone(), keys.clone(), startMinutes, endMinutes, descriptionStarts,
+                descriptions, descriptions.size(), slotCount, slotAt.clone(), positionCount, size);
+    }
+
+    @Override
+    public void restore(Snapshot snapshot) {
+        CompactSnapshot saved = (CompactSnapshot) snapshot;
+        assert saved.owner() == this : "snapshot belongs to another list";
+        flags = saved.flags().clone();
+        keys = saved.keys().clone();
+        startMinutes = saved.startMinutes();
+        endMinutes = saved.endMinutes();
+        descriptionStarts = saved.descriptionStarts();
+        descriptions = saved.descriptions();
+        descriptions.truncate(saved.descriptionBytes());
+        slotCount = saved.slotCount();
+        slotAt = saved.slotAt().clone();
+        positionCount = saved.positionCount();
+        size = saved.size();
+        slotOfId = null;
+        clearIndexes();
+        changed();
+    }
+
+    @Override
+    public Task getTaskById(long id) {
+        int slot = slotOf(id);
+        return slot == LongIntMap.MISSING ? null : view(slot);
+    }
+
+    @Override
+    public Task getLastTask() {
+        for (int i = positionCount - 1; i >= 0; i--) {
+            if (!isDeleted(slotAt[i])) {
+                return view(slotAt[i]);
+            }
+        }
+        throw new IndexOutOfBoundsException("The list is empty");
+    }
+
+    /**
+     * Returns the slot of the task with the given ID, or {@link LongIntMap#MISSING}.
+     * Every change of key goes through this list, so once built the ID index never goes stale.
+     */
+    private int slotOf(long id) {
+        if (id < 0) {
+            return LongIntMap.MISSING;
+        }
+        if (slotOfId == null) {
+            slotOfId = new LongIntMap(size);
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (!isDeleted(slot) && keys[slot] >= 0) {
+                    slotOfId.put(keys[slot], slot);
+                }
+            }
+        }
+        return slotOfId.get(id);
+    }
+
+    private boolean isDeleted(int slot) {
+        return (flags[slot] & DELETED) != 0;
+    }
+
+    /**
+     * Drops the positions of tasks deleted by ID, so that positions are list numbers again.
+     */
+    private void removeTombstones() {
+        if (positionCount == size) {
+            return;
+        }
+        int live = 0;
+        for (int i = 0; i < positionCount; i++) {
+            if (!isDeleted(slotAt[i])) {
+                slotAt[live++] = slotAt[i];
+            }
+        }
+        positionCount = live;
+    }
+
+    /**
+     * Moves the live tasks into fresh slots in list order, dropping the slots and descriptions of deleted ones.
+     * Views made before this no longer match their tasks, so the indexes that hold them are dropped too.
+     */
+    private void compact() {
+        int capacity = Math.max(16, size * 2);
+        byte[] liveFlags = new byte[capacity];
+        long[] liveKeys = new long[capacity];
+        long[] liveStarts = new long[capacity];
+        long[] liveEnds = new long[capacity];
+        int[] liveDescriptionStarts = new int[capacity];
+        DescriptionArena liveDescriptions = descriptions.emptyCopy(descriptions.size() / 2);
+        int live = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int slot = slotAt[i];
+            if (isDeleted(slot)) {
+                continue;
+            }
+            liveFlags[live] = flags[slot];
+            liveKeys[live] = keys[slot];
+            liveStarts[live] = startMinutes[slot];
+            liveEnds[live] = endMinutes[slot];
+            liveDescriptionStarts[live] = liveDescriptions.copyFrom(descriptions, descriptionStarts[slot],
+                    descriptionLength(slot));
+            slotAt[live] = live;
+            live++;
+        }
+        flags = liveFlags;
+        keys = liveKeys;
+        startMinutes = liveStarts;
+        endMinutes = liveEnds;
+        descriptionStarts = liveDescriptionStarts;
+        descriptions = liveDescriptions;
+        slotCount = size;
+        positionCount = size;
+        slotAt = Arrays.copyOf(slotAt, capacity);
+        slotOfId = null;
+        clearIndexes();
+    }
+
+    /**
+     * Descriptions are appended in slot order, so each one ends where the next slot's begins.
+     */
+    private int descriptionLength(int slot) {
+        int end = slot + 1 < slotCount ? descriptionStarts[slot + 1] : descriptions.size();
+        return end - descriptionStarts[slot];
+    }
+
+    private String description(int slot) {
+        return descriptions.read(descriptionStarts[slot], descriptionLength(slot));
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain every word and quoted phrase in the query, in list order.
+     * Instead of keeping a keyword index full of views, this scans the description arena: plain ASCII descriptions
+     * are checked where they lie, and only the others, and those that must also contain a phrase, are decoded.
+     *
+     * @param query the words and quoted phrases to look for
+     */
+    @Override
+    public ArrayList<Task> findTasks(String query) {
+        KeywordIndex.Query parsed = KeywordIndex.Query.parse(query);
+        ArrayList<Task> matches = new ArrayList<>();
+        LinkedHashSet<String> distinctWords = new LinkedHashSet<>(parsed.words());
+        if (distinctWords.isEmpty()) {
+            return matches;
+        }
+        byte[][] words = null;
+        if (distinctWords.size() <= DescriptionArena.MAX_WORDS) {
+            words = new byte[distinctWords.size()][];
+            int w = 0;
+            for (String word : distinctWords) {
+                words[w++] = word.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            int slot = slotAt[i];
+            if (isDeleted(slot)) {
+                continue;
+            }
+            int start = descriptionStarts[slot];
+            int length = descriptionLength(slot);
+            int result = words == null ? DescriptionArena.NOT_ASCII : descriptions.containsWords(start, length, words);
+            if (result == 0) {
+                continue;
+            }
+            boolean isDecodeNeeded = result == DescriptionArena.NOT_ASCII || !parsed.phrases().isEmpty();
+            if (isDecodeNeeded && !parsed.matches(KeywordIndex.tokenize(descriptions.read(start, length)))) {
+                continue;
+            }
+            matches.add(view(slot));
+        }
+        return matches;
+    }
+
+    /**
+     * Drops the indexes of slots as well as those the list keeps, as the slots they hold no longer match.
+     */
+    @Override
+    protected void clearIndexes() {
+        super.clearIndexes();
+        trigramsBySlot = null;
+        deadlinesByDue = null;
+        eventsByStart = null;
+    }
+
+    /**
+     * Returns up to the given number of tasks whose descriptions most resemble the query, best match first.
+     * The trigram index is keyed by slot, so only the tasks found are made into views.
+     *
+     * @param query the text to look for, which may be misspelt or part of a word
+     * @param limit the maximum number of tasks to return
+     */
+    @Override
+    public ArrayList<Task> findSimilarTasks(String query, int limit) {
+        if (trigramsBySlot == null) {
+            trigramsBySlot = new TrigramIndex();
+            forEachLiveSlot(slot -> trigramsBySlot.add(slot, description(slot)));
+        }
+        ArrayList<Task> matches = new ArrayList<>();
+        for (int slot : trigramsBySlot.search(query, limit, slot -> !isDeleted(slot), this::description)) {
+            matches.add(view(slot));
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the deadlines due between the given times, both inclusive, earliest first.
+     * Deadlines are indexed by slot, and whether each is done is read from the list, so marking one
+     * leaves the index alone.
+     *
+     * @param from the earliest due time to include
+     * @param to the latest due time to include
+     * @param isPendingOnly whether to leave out deadlines that are already done
+     */
+    @Override
+    public ArrayList<Task> findDueTasks(LocalDateTime from, LocalDateTime to, boolean isPendingOnly) {
+        if (deadlinesByDue == null) {
+            deadlinesByDue = new TreeMap<>();
+            forEachLiveSlot(slot -> {
+                if ((flags[slot] & TYPE_MASK) == DEADLINE) {
+                    addSlot(deadlinesByDue, startMinutes[slot], slot);
+                }
+            });
+        }
+        ArrayList<Task> due = new ArrayList<>();
+        long fromMinute = DeadlineIndex.toEpochMinute(from);
+        long toMinute = DeadlineIndex.toEpochMinute(to);
+        if (fromMinute > toMinute) {
+            return due;
+        }
+        for (Slots sameMinute : deadlinesByDue.subMap(fromMinute, true, toMinute, true).values()) {
+            for (int i = 0; i < sameMinute.size; i++) {
+                int slot = sameMinute.slots[i];
+                if (!isDeleted(slot) && !(isPendingOnly && isDone(slot))) {
+                    due.add(view(slot));
+                }
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Returns the events that overlap the period from one time up to, but not including, another,
+     * ordered by start time.
+     *
+     * @param from the start of the period
+     * @param to the end of the period
+     */
+    @Override
+    public ArrayList<Task> findOverlappingEvents(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Task> events = new ArrayList<>();
+        forEachOverlappingEvent(from, to, slot -> events.add(view(slot)));
+        return events;
+    }
+
+    /**
+     * Returns the events taking place at the given time, ordered by start time.
+     *
+     * @param time the time to check
+     */
+    @Override
+    public ArrayList<Task> findEventsAt(LocalDateTime time) {
+        return findOverlappingEvents(time, time);
+    }
+
+    /**
+     * Returns the gaps between events in the period from one time up to another, as pairs of start and end times.
+     * Reads the times of the events from the list, without making any view.
+     *
+     * @param from the start of the period
+     * @param to the end of the period
+     */
+    @Override
+    public ArrayList<LocalDateTime[]> findFreePeriods(LocalDateTime from, LocalDateTime to) {
+        ArrayList<LocalDateTime[]> gaps = new ArrayList<>();
+        LocalDateTime[] freeFrom = {from};
+        forEachOverlappingEvent(from, to, slot -> {
+            LocalDateTime busyFrom = BinaryTaskFormat.fromEpochMinutes(startMinutes[slot]);
+            LocalDateTime busyTo = BinaryTaskFormat.fromEpochMinutes(eventEnd(slot));
+            if (busyFrom.isAfter(freeFrom[0])) {
+                gaps.add(new LocalDateTime[] {freeFrom[0], busyFrom});
+            }
+            if (busyTo.isAfter(freeFrom[0])) {
+                freeFrom[0] = busyTo;
+            }
+        });
+        if (to.isAfter(freeFrom[0])) {
+            gaps.add(new LocalDateTime[] {freeFrom[0], to});
+        }
+        return gaps;
+    }
+
+    /**
+     * Passes the slot of every event overlapping the period to the action, ordered by start time then list order,
+     * following the same rules as {@link EventIntervalTree}.
+     * Events are indexed by start time, and only those starting less than the longest event's length before
+     * the period are looked at. That is as good as an interval tree while events last hours or days, but a single
+     * event lasting years makes every query look through the events of those years.
+     */
+    private void forEachOverlappingEvent(LocalDateTime from, LocalDateTime to, IntConsumer action) {
+        if (eventsByStart == null) {
+            eventsByStart = new TreeMap<>();
+            longestEvent = 0;
+            forEachLiveSlot(slot -> {
+                if ((flags[slot] & TYPE_MASK) == EVENT) {
+                    indexEvent(slot);
+                }
+            });
+        }
+        long start = DeadlineIndex.toEpochMinute(from);
+        long end = Math.max(DeadlineIndex.toEpochMinute(to), start + 1);
+        for (Slots sameMinute : eventsByStart.subMap(start - longestEvent, false, end, false).values()) {
+            for (int i = 0; i < sameMinute.size; i++) {
+                int slot = sameMinute.slots[i];
+                if (!isDeleted(slot) && eventEnd(slot) > start) {
+                    action.accept(slot);
+                }
+            }
+        }
+    }
+
+    private void indexEvent(int slot) {
+        addSlot(eventsByStart, startMinutes[slot], slot);
+        longestEvent = Math.max(longestEvent, eventEnd(slot) - startMinutes[slot]);
+    }
+
+    /**
+     * Returns when the event in the slot ends, in epoch minutes. An event that ends before it starts,
+     * or as it starts, occupies its first minute.
+     */
+    private long eventEnd(int slot) {
+        return Math.max(endMinutes[slot], startMinutes[slot] + 1);
+    }
+
+    /**
+     * Passes every live slot to the action in list order, which is also ascending slot order.
+     */
+    private void forEachLiveSlot(IntConsumer action) {
+        for (int i = 0; i < positionCount; i++) {
+            if (!isDeleted(slotAt[i])) {
+                action.accept(slotAt[i]);
+            }
+        }
+    }
+
+    /**
+     * Slots in ascending order, which is the order their tasks were added.
+     */
+    private static class Slots {
+        private int[] slots = new int[2];
+        private int size = 0;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    /**
+     * Adds a slot under a time in epoch minutes. Slots must be added in ascending order.
+     */
+    private static void addSlot(TreeMap<Long, Slots> slotsAt, long minute, int slot) {
+        slotsAt.computeIfAbsent(minute, m -> new Slots()).add(slot);
+    }
+
+    private Task view(int slot) {
+        return switch (flags[slot] & TYPE_MASK) {
+        case DEADLINE -> new DeadlineView(slot);
+        case EVENT -> new EventView(slot);
+        default -> new ToDoView(slot);
+        };
+    }
+
+    private Task copy(int slot) {
+        Task task = switch (flags[slot] & TYPE_MASK) {
+        case DEADLINE -> new Deadline(description(slot), BinaryTaskFormat.fromEpochMinutes(startMinutes[slot]));
+        case EVENT -> new Event(description(slot), BinaryTaskFormat.fromEpochMinutes(startMinutes[slot]),
+                BinaryTaskFormat.fromEpochMinutes(endMinutes[slot]));
+        default -> new ToDo(description(slot));
+        };
+        task.setKey(keys[slot]);
+        if (isDone(slot)) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    private void setSlotKey(int slot, long key) {
+        if (slotOfId != null && keys[slot] >= 0) {
+            slotOfId.remove(keys[slot]);
+        }
+        keys[slot] = key;
+        if (slotOfId != null && key >= 0) {
+            slotOfId.put(key, slot);
+        }
+    }
+
+    private boolean isDone(int slot) {
+        return (flags[slot] & DONE) != 0;
+    }
+
+    private void setDone(int slot, boolean isDone) {
+        flags[slot] = (byte) (isDone ? flags[slot] | DONE : flags[slot] & ~DONE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns views of every task, in list order. This makes one object per task, so prefer iterating.
+     */
+    @Override
+    public ArrayList<Task> allTasks() {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (Task task : this) {
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the tasks in list order, making each view only when it is reached.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int next = skipDeleted(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < positionCount;
+            }
+
+            @Override
+            public Task next() {
+                if (next >= positionCount) {
+                    throw new NoSuchElementException();
+                }
+                Task task = view(slotAt[next]);
+                next = skipDeleted(next + 1);
+                return task;
+            }
+        };
+    }
+
+    private int skipDeleted(int position) {
+        while (position < positionCount && isDeleted(slotAt[position])) {
+            position++;
+        }
+        return position;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A task backed by a slot of the enclosing list.
+     */
+    private interface SlotView {
+        CompactTaskList owner();
+
+        int slot();
+    }
+
+    private boolean isSameSlot(Object other, int slot) {
+        return other instanceof SlotView view && view.owner() == this && view.slot() == slot;
+    }
+
+    private class ToDoView extends ToDo implements SlotView {
+        private final int slot;
+
+        private ToDoView(int slot) {
+            super(DESCRIPTION_IN_ARENA);
+            this.slot = slot;
+        }
+
+        @Override
+        public CompactTaskList owner() {
+            return CompactTaskList.this;
+        }
+
+        @Override
+        public int slot() {
+            return slot;
+        }
+
+        @Override
+        public String getDescription() {
+            return description(slot);
+        }
+
+        @Override
+        public boolean getIsDone() {
+            return isDone(slot);
+        }
+
+        @Override
+        public void markAsDone() {
+            setDone(slot, true);
+        }
+
+        @Override
+        public void unmark() {
+            setDone(slot, false);
+        }
+
+        @Override
+        protected boolean isRenderingKept() {
+            return false;
+        }
+
+        @Override
+        public long getKey() {
+            return keys[slot];
+        }
+
+        @Override
+        public void setKey(long key) {
+            setSlotKey(slot, key);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return isSameSlot(other, slot);
+        }
+
+        @Override
+        public int hashCode() {
+            return slot;
+        }
+    }
+
+    private class DeadlineView extends Deadline implements SlotView {
+        private final int slot;
+
+        private DeadlineView(int slot) {
+            super(DESCRIPTION_IN_ARENA, BinaryTaskFormat.fromEpochMinutes(startMinutes[slot]));
+            this.slot = slot;
+        }
+
+        @Override
+        public CompactTaskList owner() {
+            return CompactTaskList.this;
+        }
+
+        @Override
+        public int slot() {
+            return slot;
+        }
+
+        @Override
+        public String getDescription() {
+            return description(slot);
+        }
+
+        @Override
+        public boolean getIsDone() {
+            return isDone(slot);
+        }
+
+        @Override
+        public void markAsDone() {
+            setDone(slot, true);
+        }
+
+        @Override
+        public void unmark() {
+            setDone(slot, false);
+        }
+
+        @Override
+        protected boolean isRenderingKept() {
+            return false;
+        }
+
+        @Override
+        public long getKey() {
+            return keys[slot];
+        }
+
+        @Override
+        public void setKey(long key) {
+            setSlotKey(slot, key);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return isSameSlot(other, slot);
+        }
+
+        @Override
+        public int hashCode() {
+            return slot;
+        }
+    }
+
+    private class EventView extends Event implements SlotView {
+        private final int slot;
+
+        private EventView(int slot) {
+            super(DESCRIPTION_IN_ARENA, BinaryTaskFormat.fromEpochMinutes(startMinutes[slot]),
+                    BinaryTaskFormat.fromEpochMinutes(endMinutes[slot]));
+            this.slot = slot;
+        }
+
+        @Override
+        public CompactTaskList owner() {
+            return CompactTaskList.this;
+        }
+
+        @Override
+        public int slot() {
+            return slot;
+        }
+
+        @Override
+        public String getDescription() {
+            return description(slot);
+        }
+
+        @Override
+        public boolean getIsDone() {
+            return isDone(slot);
+        }
+
+        @Override
+        public void markAsDone() {
+            setDone(slot, true);
+        }
+
+        @Override
+        public void unmark() {
+            setDone(slot, false);
+        }
+
+        @Override
+        protected boolean isRenderingKept() {
+            return false;
+        }
+
+        @Override
+        public long getKey() {
+            return keys[slot];
+        }
+
+        @Override
+        public void setKey(long key) {
+            setSlotKey(slot, key);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return isSameSlot(other, slot);
+        }
+
+        @Override
+        public int hashCode() {
+            return slot;
+        }
+    }
+}
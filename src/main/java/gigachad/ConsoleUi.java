@@ -0,0 +1,85 @@
+package gigachad;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Plain-text user interface that reads commands from a terminal and prints each response.
+ * It needs nothing beyond the Java runtime, so it starts quickly and works on machines without a display.
+ */
+public class ConsoleUi extends Ui implements UserInterface {
+    private final BufferedReader in;
+    private final PrintStream out;
+    private boolean isExiting = false;
+
+    /**
+     * Constructs a ConsoleUi that talks to the user through standard input and output.
+     */
+    public ConsoleUi() {
+        this(System.in, System.out);
+    }
+
+    /**
+     * Constructs a ConsoleUi that reads commands from one stream and prints responses to another.
+     *
+     * @param in where commands are read from
+     * @param out where responses are printed
+     */
+    public ConsoleUi(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = out;
+    }
+
+    /**
+     * Reads a command from the user.
+     *
+     * @return the command string entered by the user, or null if there is no more input
+     */
+    public String readCommand() {
+        try {
+            return in.readLine();
+        } catch (IOException e) {
+            out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Displays a visual divider to format output.
+     */
+    public void showLine() {
+        out.println("---------------------------------");
+    }
+
+    public void show(String response) {
+        out.println(response);
+    }
+
+    @Override
+    protected void onExit() {
+        isExiting = true;
+    }
+
+    /**
+     * Displays welcome message, and reads, parses and executes user commands until "bye" command is received
+     * or the input runs out.
+     */
+    @Override
+    public void run(Path filePath) {
+        try (Gigachad gigachad = new Gigachad(filePath, this)) {
+            show(welcomeUser());
+            while (!isExiting) {
+                String command = readCommand();
+                if (command == null) {
+                    break;
+                }
+                show(gigachad.getResponse(command));
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package gigachad;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.TreeMap;
+
+import gigachad.task.Deadline;
+
+/**
+ * Deadlines sorted by due time, for answering range queries without scanning every task.
+ * Due times are keyed by epoch minute. Deadlines that are not yet done are also kept in a second map,
+ * so that queries for outstanding deadlines never visit completed ones.
+ */
+public class DeadlineIndex {
+    private final TreeMap<Long, LinkedHashSet<Deadline>> allDeadlines = new TreeMap<>();
+    private final TreeMap<Long, LinkedHashSet<Deadline>> pendingDeadlines = new TreeMap<>();
+
+    /**
+     * Returns the number of whole minutes between the epoch and the given time.
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Adds a deadline to the index.
+     *
+     * @param deadline the deadline to index
+     */
+    public void add(Deadline deadline) {
+        long minute = toEpochMinute(deadline.getBy());
+        allDeadlines.computeIfAbsent(minute, m -> new LinkedHashSet<>()).add(deadline);
+        if (!deadline.getIsDone()) {
+            pendingDeadlines.computeIfAbsent(minute, m -> new LinkedHashSet<>()).add(deadline);
+        }
+    }
+
+    /**
+     * Removes a deadline from the index.
+     *
+     * @param deadline the deadline to remove
+     */
+    public void remove(Deadline deadline) {
+        long minute = toEpochMinute(deadline.getBy());
+        removeFrom(allDeadlines, minute, deadline);
+        removeFrom(pendingDeadlines, minute, deadline);
+    }
+
+    /**
+     * Moves a deadline into or out of the outstanding deadlines after it is marked or unmarked.
+     *
+     * @param deadline the deadline whose done status may have changed
+     */
+    public void updateStatus(Deadline deadline) {
+        long minute = toEpochMinute(deadline.getBy());
+        if (deadline.getIsDone()) {
+            removeFrom(pendingDeadlines, minute, deadline);
+        } else {
+            pendingDeadlines.computeIfAbsent(minute, m -> new LinkedHashSet<>()).add(deadline);
+        }
+    }
+
+    private static void removeFrom(TreeMap<Long, LinkedHashSet<Deadline>> deadlines, long minute, Deadline deadline) {
+        LinkedHashSet<Deadline> sameMinute = deadlines.get(minute);
+        if (sameMinute != null) {
+            sameMinute.remove(deadline);
+            if (sameMinute.isEmpty()) {
+                deadlines.remove(minute);
+            }
+        }
+    }
+
+    /**
+     * Returns the deadlines due between the given times, both inclusive, earliest first.
+     *
+     * @param from the earliest due time to include
+     * @param to the latest due time to include
+     * @param isPendingOnly whether to leave out deadlines that are already done
+     */
+    public ArrayList<Deadline> dueBetween(LocalDateTime from, LocalDateTime to, boolean isPendingOnly) {
+        ArrayList<Deadline> due = new ArrayList<>();
+        long fromMinute = toEpochMinute(from);
+        long toMinute = toEpochMinute(to);
+        if (fromMinute > toMinute) {
+            return due;
+        }
+        TreeMap<Long, LinkedHashSet<Deadline>> deadlines = isPendingOnly ? pendingDeadlines : allDeadlines;
+        for (LinkedHashSet<Deadline> sameMinute : deadlines.subMap(fromMinute, true, toMinute, true).values()) {
+            due.addAll(sameMinute);
+        }
+        return due;
+    }
+}
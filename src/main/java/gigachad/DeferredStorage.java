@@ -0,0 +1,112 @@
+package gigachad;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gigachad.task.Task;
+
+/**
+ * Storage that holds on to the mutations recorded through it instead of writing them,
+ * until they are committed to another Storage in one go or dropped.
+ * Keys are still given out by the other Storage, so tasks keep the same keys whether or not they are committed.
+ * Used to run several commands as one {@link Transaction}.
+ */
+public class DeferredStorage extends Storage {
+    private final Storage target;
+    private final ArrayList<TaskJournal.Entry> entries = new ArrayList<>();
+    private boolean isSaveRequested = false;
+
+    /**
+     * Constructs a DeferredStorage that commits to the given Storage.
+     *
+     * @param target the Storage that mutations are written to once committed
+     */
+    public DeferredStorage(Storage target) {
+        super(target.filePath);
+        this.target = target;
+    }
+
+    @Override
+    public void assignKey(Task task) {
+        target.assignKey(task);
+    }
+
+    @Override
+    public void recordAdd(TaskList taskList, Task task) {
+        assignKey(task);
+        // the save format is taken now, as a view of the task may not outlive the transaction
+        entries.add(new TaskJournal.Entry(TaskJournal.ADD, task.getKey(), task.saveFormat()));
+    }
+
+    @Override
+    public void recordMark(TaskList taskList, Task task) {
+        assignKey(task);
+        entries.add(new TaskJournal.Entry(TaskJournal.MARK, task.getKey(), null));
+    }
+
+    @Override
+    public void recordUnmark(TaskList taskList, Task task) {
+        assignKey(task);
+        entries.add(new TaskJournal.Entry(TaskJournal.UNMARK, task.getKey(), null));
+    }
+
+    @Override
+    public void recordDelete(TaskList taskList, Task task) {
+        if (task.getKey() >= 0) {
+            entries.add(new TaskJournal.Entry(TaskJournal.DELETE, task.getKey(), null));
+        }
+    }
+
+    @Override
+    public void recordMarks(TaskList taskList, List<Task> tasks, boolean isDone) {
+        for (Task task : tasks) {
+            if (isDone) {
+                recordMark(taskList, task);
+            } else {
+                recordUnmark(taskList, task);
+            }
+        }
+    }
+
+    @Override
+    public void recordDeletes(TaskList taskList, List<Task> tasks) {
+        for (Task task : tasks) {
+            recordDelete(taskList, task);
+        }
+    }
+
+    @Override
+    public void recordAll(TaskList taskList, List<TaskJournal.Entry> entries) {
+        this.entries.addAll(entries);
+    }
+
+    /**
+     * Asks for a full save once the mutations are committed, rather than writing one now.
+     */
+    @Override
+    public void saveToStorage(TaskList taskList) {
+        isSaveRequested = true;
+    }
+
+    /**
+     * Returns how many mutations are waiting to be committed.
+     */
+    public int pendingCount() {
+        return entries.size();
+    }
+
+    /**
+     * Writes every mutation recorded so far to the target Storage with a single write, and forgets them.
+     *
+     * @param taskList the TaskList the mutations were made to
+     */
+    public void commit(TaskList taskList) {
+        if (isSaveRequested) {
+            target.saveToStorage(taskList);
+        } else {
+            target.recordAll(taskList, entries);
+        }
+        entries.clear();
+        isSaveRequested = false;
+    }
+}
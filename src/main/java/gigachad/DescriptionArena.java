@@ -0,0 +1,287 @@
+package gigachad;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable buffer holding many task descriptions back to back as UTF-8 bytes.
+ * Callers keep where each description starts and how long it is, so a description costs its bytes
+ * instead of a String and its backing array.
+ * The bytes live either in one array on the Java heap or in a direct buffer outside it, where the garbage
+ * collector never has to visit them.
+ * Space taken by removed descriptions is only reclaimed by copying the live ones into a fresh arena.
+ * A single arena holds at most 2 GiB of text.
+ */
+public abstract class DescriptionArena {
+    /** Returned by {@link #containsWords} for a description it cannot check without decoding it. */
+    public static final int NOT_ASCII = -1;
+    /** The most words {@link #containsWords} can look for at once. */
+    public static final int MAX_WORDS = 64;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int size = 0;
+    private byte[] scratch = new byte[64];
+
+    /**
+     * Returns an empty arena that keeps its bytes in an array on the Java heap.
+     */
+    public static DescriptionArena onHeap(int initialCapacity) {
+        return new HeapArena(Math.max(16, initialCapacity));
+    }
+
+    /**
+     * Returns an empty arena that keeps its bytes in a direct buffer outside the Java heap.
+     */
+    public static DescriptionArena offHeap(int initialCapacity) {
+        return new DirectArena(Math.max(16, initialCapacity));
+    }
+
+    /**
+     * Returns an empty arena of the same kind as this one.
+     */
+    public abstract DescriptionArena emptyCopy(int initialCapacity);
+
+    /**
+     * Returns the number of bytes allocated for the arena.
+     */
+    public abstract long capacity();
+
+    /**
+     * Returns whether the bytes live outside the Java heap.
+     */
+    public abstract boolean isOffHeap();
+
+    protected abstract byte byteAt(int index);
+
+    protected abstract void put(int index, byte[] source, int sourceStart, int length);
+
+    protected abstract void get(int index, byte[] target, int targetStart, int length);
+
+    protected abstract void resize(int capacity);
+
+    /**
+     * Appends an encoded description to the arena.
+     *
+     * @param encoded the description as UTF-8 bytes
+     * @return the offset of its first byte
+     */
+    public int append(byte[] encoded) {
+        return append(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Copies a description out of another arena into this one.
+     *
+     * @return the offset of its first byte in this arena
+     */
+    public int copyFrom(DescriptionArena other, int start, int length) {
+        byte[] copied = other.scratch(length);
+        other.get(start, copied, 0, length);
+        return append(copied, 0, length);
+    }
+
+    private int append(byte[] source, int sourceStart, int length) {
+        if (size > MAX_CAPACITY - length) {
+            throw new IllegalStateException("Description arena is full");
+        }
+        if (size + length > capacity()) {
+            resize((int) Math.min(Math.max(2 * capacity(), (long) size + length), MAX_CAPACITY));
+        }
+        put(size, source, sourceStart, length);
+        int start = size;
+        size += length;
+        return start;
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, 2 * scratch.length)];
+        }
+        return scratch;
+    }
+
+    /**
+     * Drops every byte from the given offset on, as if the descriptions appended since had never been.
+     *
+     * @param newSize the number of bytes to keep, at most {@link #size()}
+     */
+    public void truncate(int newSize) {
+        assert newSize >= 0 && newSize <= size : "can only shrink the arena";
+        size = newSize;
+    }
+
+    /**
+     * Decodes the description stored at the given offset.
+     */
+    public String read(int start, int length) {
+        byte[] copied = scratch(length);
+        get(start, copied, 0, length);
+        return new String(copied, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks whether the description at the given offset contains every one of the given words, without decoding it.
+     * Words are matched as {@link KeywordIndex#tokenize(String)} splits them: whole runs of letters and digits,
+     * ignoring case. Only plain ASCII descriptions are checked this way.
+     *
+     * @param start the offset of the description
+     * @param length the length of the description in bytes
+     * @param words up to {@link #MAX_WORDS} lower-case words as UTF-8 bytes
+     * @return 1 if the description contains every word, 0 if it does not, or {@link #NOT_ASCII} if it has
+     *     other characters and has to be decoded and tokenized instead
+     */
+    public int containsWords(int start, int length, byte[][] words) {
+        assert words.length <= MAX_WORDS : "too many words";
+        long all = words.length == MAX_WORDS ? -1L : (1L << words.length) - 1;
+        long found = 0;
+        int end = start + length;
+        int runStart = -1;
+        for (int i = start; i <= end; i++) {
+            byte b = i < end ? byteAt(i) : (byte) ' ';
+            if (b < 0) {
+                return NOT_ASCII;
+            }
+            boolean isWordByte = b >= '0' && b <= '9' || b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z';
+            if (isWordByte && runStart == -1) {
+                runStart = i;
+            } else if (!isWordByte && runStart != -1) {
+                found |= matchRun(runStart, i, words);
+                runStart = -1;
+            }
+        }
+        return found == all ? 1 : 0;
+    }
+
+    /**
+     * Returns a bit set of the words equal to the run of bytes, ignoring the case of the run.
+     */
+    private long matchRun(int runStart, int runEnd, byte[][] words) {
+        long matched = 0;
+        for (int w = 0; w < words.length; w++) {
+            byte[] word = words[w];
+            if (word.length != runEnd - runStart) {
+                continue;
+            }
+            int i = 0;
+            while (i < word.length) {
+                byte b = byteAt(runStart + i);
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != word[i]) {
+                    break;
+                }
+                i++;
+            }
+            if (i == word.length) {
+                matched |= 1L << w;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Returns the number of bytes in use, including those of removed descriptions.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static class HeapArena extends DescriptionArena {
+        private byte[] bytes;
+
+        private HeapArena(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        @Override
+        public DescriptionArena emptyCopy(int initialCapacity) {
+            return onHeap(initialCapacity);
+        }
+
+        @Override
+        public long capacity() {
+            return bytes.length;
+        }
+
+        @Override
+        public boolean isOffHeap() {
+            return false;
+        }
+
+        @Override
+        protected byte byteAt(int index) {
+            return bytes[index];
+        }
+
+        @Override
+        protected void put(int index, byte[] source, int sourceStart, int length) {
+            System.arraycopy(source, sourceStart, bytes, index, length);
+        }
+
+        @Override
+        protected void get(int index, byte[] target, int targetStart, int length) {
+            System.arraycopy(bytes, index, target, targetStart, length);
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            bytes = Arrays.copyOf(bytes, capacity);
+        }
+
+        @Override
+        public String read(int start, int length) {
+            return new String(bytes, start, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Arena in a direct buffer. The buffer's memory is freed when the buffer itself is collected,
+     * so an arena dropped after growing or compaction holds on to its memory until the next collection.
+     */
+    private static class DirectArena extends DescriptionArena {
+        private ByteBuffer buffer;
+
+        private DirectArena(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+        }
+
+        @Override
+        public DescriptionArena emptyCopy(int initialCapacity) {
+            return offHeap(initialCapacity);
+        }
+
+        @Override
+        public long capacity() {
+            return buffer.capacity();
+        }
+
+        @Override
+        public boolean isOffHeap() {
+            return true;
+        }
+
+        @Override
+        protected byte byteAt(int index) {
+            return buffer.get(index);
+        }
+
+        @Override
+        protected void put(int index, byte[] source, int sourceStart, int length) {
+            buffer.put(index, source, sourceStart, length);
+        }
+
+        @Override
+        protected void get(int index, byte[] target, int targetStart, int length) {
+            buffer.get(index, target, targetStart, length);
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+            grown.put(0, buffer, 0, size());
+            buffer = grown;
+        }
+    }
+}
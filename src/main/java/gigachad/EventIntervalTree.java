@@ -0,0 +1,211 @@
+package gigachad;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import gigachad.task.Event;
+
+/**
+ * Interval tree over events, for finding the events that overlap a period without scanning every task.
+ * Events are kept in a treap ordered by start time, and each node records the latest end time in its subtree,
+ * so whole subtrees that end too early or start too late are skipped.
+ * An event occupies the half-open period from its start up to its end, so back-to-back events do not overlap.
+ * Events that end before they start, or start and end together, occupy their first minute.
+ */
+public class EventIntervalTree {
+    private static class Node {
+        private final Event event;
+        private final long start;
+        private final long end;
+        private final long order;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(Event event, long start, long end, long order, int priority) {
+            this.event = event;
+            this.start = start;
+            this.end = end;
+            this.order = order;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        private int compareTo(long otherStart, long otherOrder) {
+            return start != otherStart ? Long.compare(start, otherStart) : Long.compare(order, otherOrder);
+        }
+    }
+
+    private final HashMap<Event, Long> orderOf = new HashMap<>();
+    private final Random random = new Random(0);
+    private Node root;
+    private long nextOrder = 0;
+
+    private static long startOf(Event event) {
+        return DeadlineIndex.toEpochMinute(event.getFrom());
+    }
+
+    private static long endOf(Event event) {
+        return Math.max(DeadlineIndex.toEpochMinute(event.getTo()), startOf(event) + 1);
+    }
+
+    /**
+     * Adds an event to the tree.
+     *
+     * @param event the event to add
+     */
+    public void add(Event event) {
+        long order = nextOrder++;
+        orderOf.put(event, order);
+        root = insert(root, new Node(event, startOf(event), endOf(event), order, random.nextInt()));
+    }
+
+    /**
+     * Removes an event from the tree.
+     *
+     * @param event the event to remove
+     */
+    public void remove(Event event) {
+        Long order = orderOf.remove(event);
+        if (order != null) {
+            root = delete(root, startOf(event), order);
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.compareTo(node.start, node.order) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, long start, long order) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = node.compareTo(start, order);
+        if (comparison > 0) {
+            node.left = delete(node.left, start, order);
+        } else if (comparison < 0) {
+            node.right = delete(node.right, start, order);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, start, order);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, start, order);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
+    private static void update(Node node) {
+        node.maxEnd = node.end;
+        if (node.left != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+        }
+    }
+
+    /**
+     * Returns the events that overlap the period from one time up to, but not including, another,
+     * ordered by start time.
+     *
+     * @param from the start of the period
+     * @param to the end of the period
+     */
+    public ArrayList<Event> overlapping(LocalDateTime from, LocalDateTime to) {
+        long start = DeadlineIndex.toEpochMinute(from);
+        long end = Math.max(DeadlineIndex.toEpochMinute(to), start + 1);
+        ArrayList<Event> events = new ArrayList<>();
+        collectOverlapping(root, start, end, events);
+        return events;
+    }
+
+    /**
+     * Returns the events taking place at the given time, ordered by start time.
+     *
+     * @param time the time to check
+     */
+    public ArrayList<Event> at(LocalDateTime time) {
+        return overlapping(time, time);
+    }
+
+    private static void collectOverlapping(Node node, long start, long end, ArrayList<Event> events) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collectOverlapping(node.left, start, end, events);
+        if (node.start >= end) {
+            return;
+        }
+        if (node.end > start) {
+            events.add(node.event);
+        }
+        collectOverlapping(node.right, start, end, events);
+    }
+
+    /**
+     * Returns the gaps between events in the period from one time up to another, as pairs of start and end times.
+     *
+     * @param from the start of the period
+     * @param to the end of the period
+     */
+    public ArrayList<LocalDateTime[]> freePeriods(LocalDateTime from, LocalDateTime to) {
+        ArrayList<LocalDateTime[]> gaps = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (Event event : overlapping(from, to)) {
+            LocalDateTime busyFrom = event.getFrom();
+            LocalDateTime busyTo = event.getTo().isAfter(busyFrom) ? event.getTo() : busyFrom.plusMinutes(1);
+            if (busyFrom.isAfter(freeFrom)) {
+                gaps.add(new LocalDateTime[] {freeFrom, busyFrom});
+            }
+            if (busyTo.isAfter(freeFrom)) {
+                freeFrom = busyTo;
+            }
+        }
+        if (to.isAfter(freeFrom)) {
+            gaps.add(new LocalDateTime[] {freeFrom, to});
+        }
+        return gaps;
+    }
+}
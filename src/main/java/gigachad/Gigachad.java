@@ -1,17 +1,37 @@
 package gigachad;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.function.Consumer;
 
 import gigachad.exception.GigachadException;
+import gigachad.task.Task;
 
 /**
  * Main class for gigachad chatbot.
  * Initialises application components and manages the main execution loop.
  * Handles user input, command parsing and execution of task operations.
  */
-public class Gigachad {
-    private final Storage storage;
+public class Gigachad implements AutoCloseable {
+    /** Set this system property to true to keep tasks in a {@link CompactTaskList}, for very large lists. */
+    public static final String COMPACT_TASKS_PROPERTY = "gigachad.compactTasks";
+    /** Set this system property to true to also keep task descriptions outside the Java heap. */
+    public static final String OFF_HEAP_DESCRIPTIONS_PROPERTY = "gigachad.offHeapDescriptions";
+    /** Set this system property to the number of script commands to run between writes of the tasks file. */
+    public static final String CHECKPOINT_INTERVAL_PROPERTY = "gigachad.checkpointInterval";
+    /** Set this system property to false to print only the number of tasks at startup, rather than every task. */
+    public static final String PRINT_TASKS_PROPERTY = "gigachad.printTasks";
+    /** Command-line option that runs a script of commands from a file, or from standard input if given "-". */
+    public static final String SCRIPT_OPTION = "--script";
+    public static final String DEFAULT_FILE_PATH = "data/tasks.txt";
+
+    private final WriteBehindStorage storage;
     private final TaskList listOfTasks;
     private final Ui ui;
 
@@ -21,14 +41,66 @@ public class Gigachad {
      * @param filePath the path to the file where tasks will be stored
      */
     public Gigachad(Path filePath) {
-        this.ui = new Ui();
-        this.storage = new Storage(filePath);
-        this.listOfTasks = new TaskList(storage.initStorage());
+        this(filePath, new Ui());
+    }
+
+    /**
+     * Constructs new gigachad chatbot instance that talks to the user through the given Ui.
+     * @param filePath the path to the file where tasks will be stored
+     * @param ui the Ui that builds responses, and is told when the user says bye
+     */
+    public Gigachad(Path filePath, Ui ui) {
+        this(filePath, WriteBehindStorage.Durability.GROUP, ui);
+    }
+
+    /**
+     * Constructs new gigachad chatbot instance that tells how loading its tasks is going.
+     * @param filePath the path to the file where tasks will be stored
+     * @param ui the Ui that builds responses, and is told when the user says bye
+     * @param progressListener called with a short description of each stage of loading as it starts
+     */
+    public Gigachad(Path filePath, Ui ui, Consumer<String> progressListener) {
+        this(filePath, WriteBehindStorage.Durability.GROUP, ui, progressListener);
+    }
+
+    /**
+     * Constructs new gigachad chatbot instance that writes its tasks with the given durability.
+     * @param filePath the path to the file where tasks will be stored
+     * @param durability how durable each recorded mutation should be
+     * @param ui the Ui that builds responses, and is told when the user says bye
+     */
+    public Gigachad(Path filePath, WriteBehindStorage.Durability durability, Ui ui) {
+        this(filePath, durability, ui, stage -> { });
+    }
+
+    /**
+     * Constructs new gigachad chatbot instance that writes its tasks with the given durability,
+     * and tells how loading them is going.
+     * @param filePath the path to the file where tasks will be stored
+     * @param durability how durable each recorded mutation should be
+     * @param ui the Ui that builds responses, and is told when the user says bye
+     * @param progressListener called with a short description of each stage of loading as it starts
+     */
+    public Gigachad(Path filePath, WriteBehindStorage.Durability durability, Ui ui,
+            Consumer<String> progressListener) {
+        this.ui = ui;
+        this.storage = new WriteBehindStorage(filePath, durability);
+        storage.setPrintingTasks(Boolean.parseBoolean(System.getProperty(PRINT_TASKS_PROPERTY, "true")));
+        storage.setProgressListener(progressListener);
+        ArrayList<Task> loadedTasks = storage.initStorage();
+        progressListener.accept(String.format("Indexing %,d tasks...", loadedTasks.size()));
+        boolean isOffHeap = Boolean.getBoolean(OFF_HEAP_DESCRIPTIONS_PROPERTY);
+        this.listOfTasks = isOffHeap || Boolean.getBoolean(COMPACT_TASKS_PROPERTY)
+                ? new CompactTaskList(loadedTasks, isOffHeap)
+                : new TaskList(loadedTasks);
     }
 
     public String getResponse(String input) {
         String response = "";
         try {
+            if (Transaction.isTransaction(input)) {
+                return Transaction.parse(input).execute(listOfTasks, ui, storage);
+            }
             Command parsedCommand = Parser.parse(input);
             response = parsedCommand.execute(listOfTasks, ui, storage);
         } catch (GigachadException e) {
@@ -39,28 +111,65 @@ public class Gigachad {
     }
 
     /**
-     * Starts main execution loop of gigachad.
-     * Displays welcome message, and reads, parses and executes user commands until "bye" command is received.
-     * Handles any exceptions that occur during user command execution
+     * Blocks until every change made so far has been written to the tasks file.
      */
-    public void run() {
-        ui.welcomeUser();
+    public void flush() {
+        storage.flush();
+    }
 
-        // ask for user input
-        String command = "";
-        while (!command.equals("bye")) {
-            command = ui.readCommand();
-            getResponse(command);
+    /**
+     * Writes every change made so far to the tasks file, and stops the threads that write it.
+     */
+    @Override
+    public void close() {
+        storage.close();
+    }
+
+    /**
+     * Runs a script of commands without the interactive loop, then prints a summary of the run.
+     * Failed commands are printed with their line numbers as they happen.
+     *
+     * @param source the path of the script, or "-" to read it from standard input
+     * @return what the run did, or null if the script could not be read
+     */
+    public ScriptRunner.Summary runScript(String source) {
+        int checkpointInterval = Integer.getInteger(CHECKPOINT_INTERVAL_PROPERTY,
+                ScriptRunner.DEFAULT_CHECKPOINT_INTERVAL);
+        ScriptRunner runner = new ScriptRunner(listOfTasks, ui, storage, Math.max(1, checkpointInterval));
+        try (BufferedReader script = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            ScriptRunner.Summary summary = runner.run(script, System.out);
+            System.out.println(summary);
+            return summary;
+        } catch (IOException e) {
+            System.out.println("Could not read the script: " + e.getMessage());
+            return null;
         }
     }
 
     /**
      * Main entry point of gigachad.
-     * Creates new gigachad instance with default file path and starts the gigachad chatbot.
+     * Starts the gigachad chatbot in the terminal with the default file path,
+     * or runs a script instead if started with {@code --script <file>}.
+     * A script run given no file, or more than one, prints how to start it and exits with status 1,
+     * rather than falling back to the terminal and waiting for input that a batch job never sends.
      *
      * @param args command-line arguments
      */
     public static void main(String[] args) {
-        new Gigachad(Paths.get("data/tasks.txt")).run();
+        Path filePath = Paths.get(DEFAULT_FILE_PATH);
+        if (args.length > 0 && args[0].equals(SCRIPT_OPTION)) {
+            if (args.length != 2) {
+                System.out.println("Usage: " + SCRIPT_OPTION + " <file>, or " + SCRIPT_OPTION
+                        + " - to read the script from standard input");
+                System.exit(1);
+            }
+            Gigachad gigachad = new Gigachad(filePath, WriteBehindStorage.Durability.CHECKPOINT, new Ui());
+            ScriptRunner.Summary summary = gigachad.runScript(args[1]);
+            gigachad.close();
+            System.exit(summary == null || summary.errorCount() > 0 ? 1 : 0);
+        }
+        new ConsoleUi().run(filePath);
     }
 }
@@ -0,0 +1,129 @@
+package gigachad;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Folds the task journal into a fresh snapshot on a background thread once the journal grows past
+ * a size or record-count threshold, so that startup replay time stays bounded.
+ * Commands keep appending to a new journal file while a compaction is running.
+ */
+public class JournalCompactor {
+    public static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+    public static final long DEFAULT_MAX_RECORDS = 50_000;
+
+    /**
+     * Summary of a finished compaction.
+     *
+     * @param durationMillis how long the compaction took, in milliseconds
+     * @param bytesReclaimed how many bytes of snapshot and journal were freed by the compaction
+     */
+    public record CompactionReport(long durationMillis, long bytesReclaimed) {
+        @Override
+        public String toString() {
+            return "Journal compacted in " + durationMillis + " ms, reclaimed " + bytesReclaimed + " bytes.";
+        }
+    }
+
+    private final Storage storage;
+    private final TaskJournal journal;
+    private final ExecutorService executor;
+    private long maxBytes;
+    private long maxRecords;
+    private Future<?> pending;
+    private volatile CompactionReport lastReport;
+
+    /**
+     * Constructs a JournalCompactor for the journal of the given storage, using the default thresholds.
+     *
+     * @param storage the storage whose snapshot is rewritten by the compaction
+     * @param journal the journal to compact
+     */
+    public JournalCompactor(Storage storage, TaskJournal journal) {
+        this.storage = storage;
+        this.journal = journal;
+        this.maxBytes = DEFAULT_MAX_BYTES;
+        this.maxRecords = DEFAULT_MAX_RECORDS;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the journal size and record count past which a compaction is started.
+     *
+     * @param maxBytes the journal size in bytes that triggers a compaction
+     * @param maxRecords the number of journal records that triggers a compaction
+     */
+    public void setThresholds(long maxBytes, long maxRecords) {
+        assert maxBytes > 0 && maxRecords > 0 : "Compaction thresholds must be positive";
+        this.maxBytes = maxBytes;
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * Returns what the last finished compaction did, or null if none has finished.
+     * Compactions run in the background, so their reports are kept here rather than printed over the user's session.
+     */
+    public CompactionReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Starts a background compaction if the journal has passed a threshold and no compaction is running.
+     * Must be called from the thread that appends to the journal.
+     *
+     * @throws IOException if the journal cannot be rotated
+     */
+    public void maybeCompact() throws IOException {
+        if (journal.getByteCount() < maxBytes && journal.getRecordCount() < maxRecords) {
+            return;
+        }
+        if (pending != null && !pending.isDone()) {
+            return;
+        }
+        // a segment left by an earlier compaction is folded first; the journal is rotated on a later call
+        journal.rotate();
+        pending = executor.submit(this::compact);
+    }
+
+    private void compact() {
+        try {
+            long start = System.nanoTime();
+            long bytesReclaimed = storage.foldCompactingSegment();
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            lastReport = new CompactionReport(durationMillis, bytesReclaimed);
+        } catch (IOException e) {
+            System.out.println("An error occurred while compacting the journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for the running compaction, if any, to finish.
+     */
+    public void awaitCompaction() {
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("An error occurred while compacting the journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for the running compaction, if any, and stops the compaction thread. Later compactions are not run.
+     */
+    public void close() {
+        awaitCompaction();
+        executor.shutdown();
+    }
+}
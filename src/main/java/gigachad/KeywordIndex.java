@@ -0,0 +1,160 @@
+package gigachad;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+import gigachad.task.Task;
+
+/**
+ * Inverted index from description words to the tasks containing them.
+ * Words are runs of letters and digits, compared case-insensitively.
+ * Each posting list keeps tasks in the order they were added, which is also their order in the TaskList,
+ * so search results come out in list order without sorting.
+ */
+public class KeywordIndex {
+    private final HashMap<String, LinkedHashSet<Task>> postings = new HashMap<>();
+
+    /**
+     * Splits text into lower-case words.
+     *
+     * @param text the text to split
+     * @return the words in the order they appear, including repeats
+     */
+    public static ArrayList<String> tokenize(String text) {
+        ArrayList<String> tokens = new ArrayList<>();
+        int tokenStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && tokenStart == -1) {
+                tokenStart = i;
+            } else if (!isWordChar && tokenStart != -1) {
+                tokens.add(text.substring(tokenStart, i).toLowerCase(Locale.ROOT));
+                tokenStart = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Adds a task to the posting list of every word in its description.
+     * Tasks must be added in list order.
+     *
+     * @param task the task to index
+     */
+    public void add(Task task) {
+        for (String token : tokenize(task.getDescription())) {
+            postings.computeIfAbsent(token, t -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    /**
+     * Removes a task from the posting lists of the words in its description.
+     *
+     * @param task the task to remove
+     */
+    public void remove(Task task) {
+        for (String token : tokenize(task.getDescription())) {
+            LinkedHashSet<Task> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(task);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks matching every word and every quoted phrase in the query.
+     * For example, {@code book "project meeting"} matches tasks whose description contains the word "book"
+     * and the words "project meeting" next to each other.
+     *
+     * @param query the words and quoted phrases to look for
+     * @return the matching tasks in list order
+     */
+    public ArrayList<Task> search(String query) {
+        Query parsed = Query.parse(query);
+        ArrayList<Task> matches = new ArrayList<>();
+        if (parsed.words().isEmpty()) {
+            return matches;
+        }
+
+        // walk the shortest posting list and probe the others
+        ArrayList<LinkedHashSet<Task>> lists = new ArrayList<>();
+        LinkedHashSet<Task> shortest = null;
+        for (String word : parsed.words()) {
+            LinkedHashSet<Task> posting = postings.get(word);
+            if (posting == null) {
+                return matches;
+            }
+            lists.add(posting);
+            if (shortest == null || posting.size() < shortest.size()) {
+                shortest = posting;
+            }
+        }
+
+        for (Task task : shortest) {
+            if (isInAll(task, lists)
+                    && (parsed.phrases().isEmpty() || parsed.containsPhrases(tokenize(task.getDescription())))) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    private static boolean isInAll(Task task, ArrayList<LinkedHashSet<Task>> lists) {
+        for (LinkedHashSet<Task> posting : lists) {
+            if (!posting.contains(task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The words and quoted phrases of a search query, each word lower-cased as by {@link #tokenize(String)}.
+     * The words of a phrase are included in the words too.
+     */
+    public record Query(ArrayList<String> words, ArrayList<List<String>> phrases) {
+        /**
+         * Splits a query into its words and its quoted phrases of more than one word.
+         */
+        public static Query parse(String query) {
+            ArrayList<String> words = new ArrayList<>();
+            ArrayList<List<String>> phrases = new ArrayList<>();
+            String[] quoteSeparated = query.split("\"", -1);
+            for (int i = 0; i < quoteSeparated.length; i++) {
+                ArrayList<String> partWords = tokenize(quoteSeparated[i]);
+                words.addAll(partWords);
+                boolean isQuoted = i % 2 == 1;
+                if (isQuoted && partWords.size() > 1) {
+                    phrases.add(partWords);
+                }
+            }
+            return new Query(words, phrases);
+        }
+
+        /**
+         * Returns whether the words of a description contain every phrase of the query.
+         */
+        public boolean containsPhrases(List<String> descriptionWords) {
+            for (List<String> phrase : phrases) {
+                if (Collections.indexOfSubList(descriptionWords, phrase) == -1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns whether the words of a description match the whole query.
+         */
+        public boolean matches(List<String> descriptionWords) {
+            return !words.isEmpty() && descriptionWords.containsAll(words) && containsPhrases(descriptionWords);
+        }
+    }
+}
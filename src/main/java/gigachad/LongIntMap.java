@@ -0,0 +1,120 @@
+package gigachad;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from non-negative long keys to int values, stored in two flat arrays.
+ * Used to look tasks up by ID without a boxed Long and map entry per task.
+ * Collisions are resolved by linear probing, and removal shifts later entries back into the gap,
+ * so lookups never have to step over deleted entries.
+ */
+public class LongIntMap {
+    /** Returned by {@link #get(long)} for a key that is not in the map. */
+    public static final int MISSING = -1;
+    private static final long FREE = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+
+    public LongIntMap() {
+        this(16);
+    }
+
+    public LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+    }
+
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & (keys.length - 1);
+    }
+
+    /**
+     * Returns the value stored for the key, or {@link #MISSING}.
+     */
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key); keys[slot] != FREE; slot = slot + 1 & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Stores a value for the key, replacing any value already stored.
+     *
+     * @param key a non-negative key
+     * @param value the value to store
+     */
+    public void put(long key, int value) {
+        assert key >= 0 : "keys must not be negative";
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = slot + 1 & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (2 * size > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes the key and returns the value stored for it, or {@link #MISSING} if there was none.
+     */
+    public int remove(long key) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == FREE) {
+                return MISSING;
+            }
+            slot = slot + 1 & mask;
+        }
+        int removed = values[slot];
+        size--;
+        // move back any later entry of the same run that would no longer be reachable past the gap
+        int gap = slot;
+        for (int next = gap + 1 & mask; keys[next] != FREE; next = next + 1 & mask) {
+            int home = slotOf(keys[next]);
+            boolean isReachable = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+            if (!isReachable) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = FREE;
+        return removed;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -5,6 +5,7 @@ import gigachad.exception.GigachadException;
 /**
  * Handles parsing of user commands for the gigachad chatbot
  * and passes executable commands on to Command class.
+ * Input is tokenized once, in place, and the Command reads its arguments from those tokens.
  * Provides parse method for parsing user input.
  */
 public class Parser {
@@ -18,13 +19,10 @@ public class Parser {
             throw new GigachadException("Input cannot be blank!");
         }
 
-        String[] parts = input.trim().split(" ");
-        String firstWord = parts[0].toLowerCase();
-        assert !firstWord.isEmpty() : "command should not be empty";
-
-        String[] args = new String[parts.length];
-
-        System.arraycopy(parts, 0, args, 0, args.length);
-        return new Command(firstWord, input, args);
+        CommandInput tokens = CommandInput.tokenize(input);
+        if (tokens.size() == 0) {
+            throw new GigachadException("Input cannot be blank!");
+        }
+        return new Command(tokens);
     }
 }
@@ -0,0 +1,90 @@
+package gigachad;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counts the live entries of a list that keeps tombstones, so that the n-th live entry can be found
+ * without clearing the tombstones out first.
+ * The counts are kept in a Fenwick tree over the positions of the backing list, so finding an entry,
+ * deleting one and appending one each take time logarithmic in the length of the list.
+ */
+public class PositionIndex {
+    private int[] tree;
+    private int length;
+
+    /**
+     * Counts the entries of the given list, treating null entries as tombstones.
+     *
+     * @param entries the backing list
+     */
+    public PositionIndex(List<?> entries) {
+        length = entries.size();
+        tree = new int[Math.max(16, length + 1)];
+        for (int i = 1; i <= length; i++) {
+            if (entries.get(i - 1) != null) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the length of the backing list these counts were kept for, tombstones included.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Counts a live entry appended to the end of the backing list.
+     */
+    public void append() {
+        if (length + 1 == tree.length) {
+            tree = Arrays.copyOf(tree, tree.length * 2);
+        }
+        int position = ++length;
+        // the new node covers itself and the nodes just before it that its lowest bit spans
+        tree[position] = 1 + prefixCount(position - 1) - prefixCount(position - (position & -position));
+    }
+
+    /**
+     * Counts the entry at the given backing position as a tombstone from now on.
+     *
+     * @param position the zero-based position in the backing list of an entry that was live
+     */
+    public void remove(int position) {
+        for (int i = position + 1; i <= length; i += i & -i) {
+            tree[i]--;
+        }
+    }
+
+    private int prefixCount(int end) {
+        int count = 0;
+        for (int i = end; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Returns the backing position of the live entry with the given index, counting only live entries.
+     *
+     * @param index the zero-based index among the live entries, which must be less than their number
+     */
+    public int positionOf(int index) {
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(length); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,115 @@
+package gigachad;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+import gigachad.exception.GigachadException;
+
+/**
+ * Runs a script of commands, one per line, without the interactive loop, as in
+ * {@code java gigachad.Gigachad --script commands.txt}.
+ * Commands are executed in order exactly as if they had been typed, but their responses are not shown.
+ * Persistence is left to the Storage until a checkpoint, which comes every so many commands and once at the end,
+ * so with a {@link WriteBehindStorage} at {@link WriteBehindStorage.Durability#CHECKPOINT} a long script
+ * costs a handful of journal writes instead of one per command.
+ * A command that fails is reported with its line number and skipped, and the rest of the script still runs.
+ * A line of several commands separated by semicolons runs as one {@link Transaction}, and counts as one command.
+ */
+public class ScriptRunner {
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+    private static final String EXIT_COMMAND = "bye";
+
+    /**
+     * What running a script did.
+     *
+     * @param commandCount the number of commands run, including those that failed
+     * @param errorCount the number of commands that failed
+     * @param checkpointCount the number of times the Storage was flushed
+     * @param elapsedNanos how long the script took to run, in nanoseconds
+     */
+    public record Summary(int commandCount, int errorCount, int checkpointCount, long elapsedNanos) {
+        /**
+         * Returns a one-line description of the run, with its throughput.
+         */
+        @Override
+        public String toString() {
+            long elapsedMillis = elapsedNanos / 1_000_000;
+            double commandsPerSecond = elapsedNanos == 0 ? 0 : commandCount * 1e9 / elapsedNanos;
+            return String.format(Locale.ROOT, "Ran %,d commands in %,d ms (%,.0f commands/s)"
+                    + " with %,d errors and %,d checkpoints.", commandCount, elapsedMillis, commandsPerSecond,
+                    errorCount, checkpointCount);
+        }
+    }
+
+    private final TaskList listOfTasks;
+    private final Ui ui;
+    private final Storage storage;
+    private final int checkpointInterval;
+
+    /**
+     * Constructs a ScriptRunner.
+     *
+     * @param listOfTasks the TaskList the commands act on
+     * @param ui the Ui the commands build their responses with
+     * @param storage the Storage the commands record their mutations in
+     * @param checkpointInterval how many commands to run between flushes of the Storage
+     */
+    public ScriptRunner(TaskList listOfTasks, Ui ui, Storage storage, int checkpointInterval) {
+        assert checkpointInterval > 0 : "Checkpoint interval must be positive";
+        this.listOfTasks = listOfTasks;
+        this.ui = ui;
+        this.storage = storage;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Runs every command in the script, stopping early at a line that says bye.
+     * Blank lines are skipped. The Storage is flushed once more at the end, whether or not the script ran to the end.
+     *
+     * @param script the commands, one per line
+     * @param errors where to report commands that failed
+     * @return what the run did
+     * @throws IOException if the script cannot be read
+     */
+    public Summary run(BufferedReader script, PrintStream errors) throws IOException {
+        long started = System.nanoTime();
+        int lineNumber = 0;
+        int commandCount = 0;
+        int errorCount = 0;
+        int checkpointCount = 0;
+        try {
+            String line;
+            while ((line = script.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                // bye ends the script rather than running as a command, matched the way commands are routed
+                if (CommandInput.tokenize(line).tokenEqualsIgnoreCase(0, EXIT_COMMAND)) {
+                    break;
+                }
+                commandCount++;
+                try {
+                    if (Transaction.isTransaction(line)) {
+                        Transaction.parse(line).execute(listOfTasks, ui, storage);
+                    } else {
+                        Parser.parse(line).execute(listOfTasks, ui, storage);
+                    }
+                } catch (GigachadException e) {
+                    errorCount++;
+                    errors.println("Line " + lineNumber + ": " + e.getMessage());
+                }
+                if (commandCount % checkpointInterval == 0) {
+                    storage.flush();
+                    checkpointCount++;
+                }
+            }
+        } finally {
+            storage.flush();
+        }
+        checkpointCount++;
+        return new Summary(commandCount, errorCount, checkpointCount, System.nanoTime() - started);
+    }
+}
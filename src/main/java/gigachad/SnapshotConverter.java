@@ -0,0 +1,87 @@
+package gigachad;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+import gigachad.task.Task;
+
+/**
+ * Converts task snapshots between the text format and the binary format.
+ * Journal keys are kept, so a journal next to the snapshot still replays correctly after conversion.
+ * Usage: {@code SnapshotConverter (--to-binary | --to-text) <input> [output]};
+ * without an output file, the input file is converted in place.
+ */
+public class SnapshotConverter {
+    /**
+     * Converts a text snapshot to the binary format.
+     *
+     * @param textPath the text snapshot to read
+     * @param binaryPath the binary snapshot to write, which may be the same file as textPath
+     * @return the number of tasks converted
+     * @throws IOException if either file cannot be read or written
+     */
+    public static int toBinary(Path textPath, Path binaryPath) throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        TaskFileReader.read(textPath, tasks);
+        Path tempPath = binaryPath.resolveSibling(binaryPath.getFileName() + ".tmp");
+        BinaryTaskFormat.write(tempPath, tasks);
+        Files.move(tempPath, binaryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return tasks.size();
+    }
+
+    /**
+     * Converts a binary snapshot to the text format.
+     * Tasks with a journal key are written as keyed lines, the rest as plain lines.
+     *
+     * @param binaryPath the binary snapshot to read
+     * @param textPath the text snapshot to write, which may be the same file as binaryPath
+     * @return the number of tasks converted
+     * @throws IOException if either file cannot be read or written
+     */
+    public static int toText(Path binaryPath, Path textPath) throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        BinaryTaskFormat.read(binaryPath, tasks);
+        Path tempPath = textPath.resolveSibling(textPath.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+            for (Task task : tasks) {
+                if (task.getKey() >= 0) {
+                    writer.write(task.getKey() + TaskJournal.SEPARATOR);
+                }
+                writer.write(task.saveFormat());
+                writer.write("\n");
+            }
+        }
+        Files.move(tempPath, textPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return tasks.size();
+    }
+
+    /**
+     * Converts the snapshot named on the command line.
+     *
+     * @param args the direction ("--to-binary" or "--to-text"), the input file and an optional output file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.out.println("Usage: SnapshotConverter (--to-binary | --to-text) <input> [output]");
+            return;
+        }
+        Path input = Paths.get(args[1]);
+        Path output = args.length == 3 ? Paths.get(args[2]) : input;
+        int converted = switch (args[0]) {
+        case "--to-binary" -> toBinary(input, output);
+        case "--to-text" -> toText(input, output);
+        default -> -1;
+        };
+        if (converted == -1) {
+            System.out.println("Unknown direction: " + args[0]);
+        } else {
+            System.out.println("Converted " + converted + " tasks to " + output.toAbsolutePath());
+        }
+    }
+}
@@ -1,28 +1,37 @@
 package gigachad;
 
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardCopyOption;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Consumer;
 
 import gigachad.exception.GigachadException;
-import gigachad.task.Deadline;
-import gigachad.task.Event;
 import gigachad.task.Task;
-import gigachad.task.ToDo;
 
 /**
  * Represents a Storage object file to store the tasks of the user.
+ * In journaled mode, mutations are appended to a {@link TaskJournal} instead of rewriting the whole file,
+ * and the file is only rewritten as a keyed snapshot when {@link #saveToStorage(TaskList)} is called.
+ * Snapshots are written as text by default, or in the {@link BinaryTaskFormat} once binary snapshots are enabled
+ * or a binary file has been loaded.
  */
 public class Storage {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
-
     protected Path filePath;
     protected ArrayList<Task> tasks;
+    protected TaskJournal journal;
+    protected JournalCompactor compactor;
+    private final Object snapshotLock = new Object();
+    private long nextKey;
+    private volatile boolean isBinarySnapshot;
+    private boolean isPrintingTasks = true;
+    private Consumer<String> progressListener = stage -> { };
 
     /**
      * Constructs a Storage object with the specified file path.
@@ -31,9 +40,67 @@ public class Storage {
      * @param filePath the path to the file where tasks will be stored
      */
     public Storage(Path filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructs a Storage object with the specified file path, optionally in journaled mode.
+     *
+     * @param filePath the path to the file where tasks will be stored
+     * @param isJournaled whether mutations should be appended to a journal instead of rewriting the file
+     */
+    public Storage(Path filePath, boolean isJournaled) {
         this.filePath = filePath;
         this.tasks = new ArrayList<>();
         assert filePath != null : "Deadline description must not be null/blank";
+        this.journal = isJournaled ? new TaskJournal(filePath) : null;
+        this.compactor = isJournaled ? new JournalCompactor(this, journal) : null;
+        this.nextKey = 0;
+    }
+
+    public boolean isJournaled() {
+        return journal != null;
+    }
+
+    public boolean isBinarySnapshot() {
+        return isBinarySnapshot;
+    }
+
+    /**
+     * Sets whether snapshots are written in the binary format rather than as text.
+     * The format of an existing file is detected from its header when it is loaded, whatever this is set to.
+     *
+     * @param isBinarySnapshot whether to write binary snapshots
+     */
+    public void setBinarySnapshot(boolean isBinarySnapshot) {
+        this.isBinarySnapshot = isBinarySnapshot;
+    }
+
+    /**
+     * Sets whether every loaded task is printed to the console once the storage is initialised.
+     * Turning this off saves a lot of time when loading a large file; only the number of tasks is printed then.
+     *
+     * @param isPrintingTasks whether to print the loaded tasks
+     */
+    public void setPrintingTasks(boolean isPrintingTasks) {
+        this.isPrintingTasks = isPrintingTasks;
+    }
+
+    /**
+     * Sets what to tell as loading moves from one stage to the next, such as reading the file
+     * and replaying the journal.
+     *
+     * @param progressListener called with a short description of each stage as it starts
+     */
+    public void setProgressListener(Consumer<String> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Returns the compactor that folds the journal into the snapshot, or null if not in journaled mode.
+     */
+    public JournalCompactor getCompactor() {
+        return compactor;
     }
 
     /**
@@ -44,7 +111,10 @@ public class Storage {
      * "T | isDone | description" for ToDo tasks
      * "D | isDone | description | deadlineDateTime" for Deadline tasks
      * "E | isDone | description | startDateTime - endDateTime" for Event tasks
-     * Prints initialisation status and current task list to console.
+     * Lines may also be prefixed with a journal key, as in "key | T | isDone | description".
+     * Files starting with the binary snapshot header are read with {@link BinaryTaskFormat} instead.
+     * In journaled mode, the journal is then replayed on top of the loaded snapshot.
+     * Prints initialisation status and current task list to console, unless printing tasks is turned off.
      * Handles corrupted file formats by catching and printing error messages.
      *
      * @return an ArrayList of Task objects loaded from storage, or empty list if file doesn't exist or error occurs
@@ -60,9 +130,17 @@ public class Storage {
                 System.out.println("File created: " + filePath.toAbsolutePath());
             } else {
                 System.out.println("File already exists: " + filePath.toAbsolutePath());
+                progressListener.accept(String.format("Reading %,d KB of tasks...", Files.size(filePath) / 1024));
                 loadTasksFromFile(listOfTasks);
             }
 
+            if (journal != null) {
+                progressListener.accept(String.format("Replaying changes to %,d tasks...", listOfTasks.size()));
+                listOfTasks = replayJournal(listOfTasks);
+            } else {
+                assignLoadedKeys(listOfTasks);
+            }
+
             printInitialisedTasks(listOfTasks);
             return listOfTasks;
         } catch (IOException e) {
@@ -78,92 +156,115 @@ public class Storage {
     }
 
     private void loadTasksFromFile(ArrayList<Task> listOfTasks) throws IOException {
-        try (Scanner scanner = new Scanner(filePath.toFile())) {
-            while (scanner.hasNext()) {
-                String line = scanner.nextLine();
-                parseTaskLine(line, listOfTasks);
-            }
+        if (BinaryTaskFormat.isBinary(filePath)) {
+            isBinarySnapshot = true;
+            BinaryTaskFormat.read(filePath, listOfTasks);
+        } else {
+            TaskFileReader.read(filePath, listOfTasks);
         }
     }
 
-    private void parseTaskLine(String line, ArrayList<Task> listOfTasks) {
-        String[] parts = line.split(" \\| ");
-        assert parts.length >= 3 : "Line must contain at least 3 parts: " + line;
-        String command = parts[0];
-        String isDone = parts[1];
-        String description = parts[2];
-
-        switch (command) {
-        case "T" -> loadToDo(parts, isDone, description, listOfTasks);
-        case "D" -> loadDeadline(parts, isDone, description, listOfTasks);
-        case "E" -> loadEvent(parts, isDone, description, listOfTasks);
-        default -> {
-            assert false : command;
+    /**
+     * Gives each loaded task without a key the next unused one, so that every task has an ID.
+     * Files written before tasks had IDs get them in file order.
+     */
+    private void assignLoadedKeys(ArrayList<Task> loadedTasks) {
+        for (Task task : loadedTasks) {
+            nextKey = Math.max(nextKey, task.getKey() + 1);
         }
+        for (Task task : loadedTasks) {
+            assignKey(task);
         }
     }
 
-    private void loadToDo(String[] parts, String isDone, String description, ArrayList<Task> listOfTasks) {
-        try {
-            if (parts.length == 3) {
-                ToDo todo = new ToDo(description);
-                listOfTasks.add(todo);
-                if (Integer.parseInt(isDone) == 1) {
-                    todo.markAsDone();
-                }
-            } else {
-                throw new GigachadException("Invalid format! Corrupted file!");
-            }
-        } catch (GigachadException e) {
-            System.out.println(e.getMessage());
-        }
+    /**
+     * Replays the journal on top of the tasks loaded from the snapshot.
+     */
+    private ArrayList<Task> replayJournal(ArrayList<Task> snapshot) throws IOException {
+        LinkedHashMap<Long, Task> tasksByKey = new LinkedHashMap<>();
+        nextKey = foldJournal(snapshot, journal.readRecords(), tasksByKey);
+        return new ArrayList<>(tasksByKey.values());
     }
 
-    private void loadDeadline(String[] parts, String isDone, String description, ArrayList<Task> listOfTasks) {
-        try {
-            if (parts.length != 4) {
-                throw new GigachadException("Invalid format! Corrupted file!");
+    /**
+     * Applies journal records, in order, on top of the given snapshot tasks.
+     * Tasks loaded from a plain snapshot without keys are keyed by their position in the file.
+     * Folding is idempotent, so records that were already folded into the snapshot are harmless.
+     *
+     * @return the smallest key not used by the snapshot or any of the records
+     */
+    private long foldJournal(ArrayList<Task> snapshot, List<String> journalRecords,
+            LinkedHashMap<Long, Task> tasksByKey) {
+        long unusedKey = 0;
+        for (Task task : snapshot) {
+            if (task.getKey() < 0) {
+                task.setKey(unusedKey);
             }
-            String deadlineDueDate = parts[3];
-            Deadline deadline = new Deadline(description, LocalDateTime.parse(deadlineDueDate, FORMATTER));
-            listOfTasks.add(deadline);
-            if (Integer.parseInt(isDone) == 1) {
-                deadline.markAsDone();
+            tasksByKey.put(task.getKey(), task);
+            unusedKey = Math.max(unusedKey, task.getKey() + 1);
+        }
+
+        for (String journalRecord : journalRecords) {
+            try {
+                long key = applyJournalRecord(journalRecord, tasksByKey);
+                unusedKey = Math.max(unusedKey, key + 1);
+            } catch (GigachadException e) {
+                System.out.println(e.getMessage());
             }
-        } catch (GigachadException e) {
-            System.out.println(e.getMessage());
         }
+        return unusedKey;
     }
 
-    private void loadEvent(String[] parts, String isDone, String description, ArrayList<Task> listOfTasks) {
+    private long applyJournalRecord(String journalRecord, LinkedHashMap<Long, Task> tasksByKey)
+            throws GigachadException {
+        String[] fields = journalRecord.split(" \\| ", 3);
+        long key;
         try {
-            if (parts.length != 4 || parts[3].split(" - ").length != 2) {
-                throw new GigachadException("Invalid format! Corrupted file!");
-            }
-
-            String[] fromToDates = parts[3].split(" - ");
-            String from = fromToDates[0];
-            String to = fromToDates[1];
+            key = Long.parseLong(fields[1]);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new GigachadException("Invalid journal record! Skipped: " + journalRecord);
+        }
 
-            if (description.isEmpty() || from.isEmpty() || to.isEmpty()) {
-                throw new GigachadException("Invalid format! Task description or date missing.");
+        switch (fields[0]) {
+        case TaskJournal.ADD -> {
+            if (fields.length != 3) {
+                throw new GigachadException("Invalid journal record! Skipped: " + journalRecord);
             }
-
-            Event event = new Event(description,
-                    LocalDateTime.parse(from, FORMATTER),
-                    LocalDateTime.parse(to, FORMATTER));
-            listOfTasks.add(event);
-
-            if (Integer.parseInt(isDone) == 1) {
-                event.markAsDone();
+            Task task;
+            try {
+                task = TaskFileReader.parseTask(fields[2]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new GigachadException("Invalid journal record! Skipped: " + journalRecord);
+            }
+            if (task != null) {
+                task.setKey(key);
+                tasksByKey.put(key, task);
             }
-        } catch (GigachadException e) {
-            System.out.println(e.getMessage());
         }
+        case TaskJournal.MARK -> {
+            Task task = tasksByKey.get(key);
+            if (task != null) {
+                task.markAsDone();
+            }
+        }
+        case TaskJournal.UNMARK -> {
+            Task task = tasksByKey.get(key);
+            if (task != null) {
+                task.unmark();
+            }
+        }
+        case TaskJournal.DELETE -> tasksByKey.remove(key);
+        default -> throw new GigachadException("Invalid journal record! Skipped: " + journalRecord);
+        }
+        return key;
     }
 
     private void printInitialisedTasks(ArrayList<Task> listOfTasks) {
         System.out.println("Storage initialised");
+        if (!isPrintingTasks) {
+            System.out.println("You have " + listOfTasks.size() + " tasks.");
+            return;
+        }
         System.out.println("You have the following tasks: ");
         for (int i = 0; i < listOfTasks.size(); i++) {
             System.out.print((i + 1) + ". ");
@@ -174,20 +275,275 @@ public class Storage {
     /**
      * Saves all tasks from the given TaskList to the storage file.
      * Overwrites the existing file content with the current task data.
-     * Each task is written in its save format on a separate line.
+     * Each task is written in its save format on a separate line, prefixed with its key, which is also its ID.
+     * The new file is swapped in atomically, and in journaled mode the journal is then truncated.
      *
      * @param taskList the TaskList containing tasks to be saved to storage
      * @throws IOException if an error occurs while writing to the file (handled internally)
      */
     public void saveToStorage(TaskList taskList) {
-        try (FileWriter fw = new FileWriter(filePath.toString())) {
-            for (Task task : taskList.allTasks()) {
-                fw.write(task.saveFormat());
-                fw.write("\n");
+        if (journal != null) {
+            saveSnapshot(taskList);
+            return;
+        }
+        try {
+            for (Task task : taskList) {
+                assignKey(task);
             }
-            fw.close();
+            writeSnapshot(taskList);
         } catch (IOException e) {
             System.out.println(e.getMessage());
         }
     }
+
+    private void saveSnapshot(TaskList taskList) {
+        synchronized (snapshotLock) {
+            try {
+                for (Task task : taskList) {
+                    assignKey(task);
+                }
+                writeSnapshot(taskList);
+                journal.truncate();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the given keyed tasks to a temporary file and atomically swaps it in as the snapshot.
+     */
+    private void writeSnapshot(Iterable<Task> snapshotTasks) throws IOException {
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        if (isBinarySnapshot) {
+            BinaryTaskFormat.write(tempPath, snapshotTasks);
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+            for (Task task : snapshotTasks) {
+                writer.write(task.getKey() + TaskJournal.SEPARATOR + task.saveFormat());
+                writer.write("\n");
+            }
+        }
+        Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Folds the journal's compacting segment into a fresh snapshot and then deletes the segment.
+     * Reads only the files on disk, so it is safe to run while commands keep appending to the journal.
+     * A crash at any point leaves either the old snapshot and the segment, or the new snapshot
+     * and an already folded segment, both of which replay to the same tasks.
+     *
+     * @return the number of bytes reclaimed by the compaction
+     * @throws IOException if the snapshot or segment cannot be read or written
+     */
+    long foldCompactingSegment() throws IOException {
+        synchronized (snapshotLock) {
+            Path segmentPath = journal.getCompactingPath();
+            if (Files.notExists(segmentPath)) {
+                return 0;
+            }
+            long sizeBefore = Files.size(segmentPath);
+            ArrayList<Task> snapshot = new ArrayList<>();
+            if (Files.exists(filePath)) {
+                sizeBefore += Files.size(filePath);
+                loadTasksFromFile(snapshot);
+            }
+
+            LinkedHashMap<Long, Task> tasksByKey = new LinkedHashMap<>();
+            foldJournal(snapshot, journal.readCompactingRecords(), tasksByKey);
+            writeSnapshot(tasksByKey.values());
+            Files.delete(segmentPath);
+            return sizeBefore - Files.size(filePath);
+        }
+    }
+
+    /**
+     * Gives the task the next unused key if it has none. The key is the task's ID and never changes.
+     *
+     * @param task the task to give a key
+     */
+    public void assignKey(Task task) {
+        if (task.getKey() < 0) {
+            task.setKey(nextKey++);
+        }
+    }
+
+    /**
+     * Persists a task that was just added to the given TaskList.
+     * Appends a single journal record in journaled mode, otherwise rewrites the whole file.
+     *
+     * @param taskList the TaskList the task was added to
+     * @param task the task that was added
+     */
+    public void recordAdd(TaskList taskList, Task task) {
+        if (journal == null) {
+            saveToStorage(taskList);
+            return;
+        }
+        assignKey(task);
+        try {
+            journal.appendAdd(task.getKey(), task.saveFormat());
+            journal.flush();
+            compactor.maybeCompact();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Persists a task in the given TaskList that was just marked as done.
+     *
+     * @param taskList the TaskList containing the task
+     * @param task the task that was marked
+     */
+    public void recordMark(TaskList taskList, Task task) {
+        if (journal == null) {
+            saveToStorage(taskList);
+            return;
+        }
+        assignKey(task);
+        try {
+            journal.appendMark(task.getKey());
+            journal.flush();
+            compactor.maybeCompact();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Persists a task in the given TaskList that was just marked as undone.
+     *
+     * @param taskList the TaskList containing the task
+     * @param task the task that was unmarked
+     */
+    public void recordUnmark(TaskList taskList, Task task) {
+        if (journal == null) {
+            saveToStorage(taskList);
+            return;
+        }
+        assignKey(task);
+        try {
+            journal.appendUnmark(task.getKey());
+            journal.flush();
+            compactor.maybeCompact();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Persists a task that was just removed from the given TaskList.
+     *
+     * @param taskList the TaskList the task was removed from
+     * @param task the task that was removed
+     */
+    public void recordDelete(TaskList taskList, Task task) {
+        if (journal == null) {
+            saveToStorage(taskList);
+            return;
+        }
+        if (task.getKey() < 0) {
+            return;
+        }
+        try {
+            journal.appendDelete(task.getKey());
+            journal.flush();
+            compactor.maybeCompact();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Persists tasks in the given TaskList that were just marked or unmarked together, with a single write.
+     *
+     * @param taskList the TaskList containing the tasks
+     * @param tasks the tasks whose done status changed
+     * @param isDone whether the tasks were marked as done rather than undone
+     */
+    public void recordMarks(TaskList taskList, List<Task> tasks, boolean isDone) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        if (journal == null) {
+            saveToStorage(taskList);
+            return;
+        }
+        try {
+            for (Task task : tasks) {
+                assignKey(task);
+                if (isDone) {
+                    journal.appendMark(task.getKey());
+                } else {
+                    journal.appendUnmark(task.getKey());
+                }
+            }
+            journal.flush();
+            compactor.maybeCompact();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Persists tasks that were just removed together from the given TaskList, with a single write.
+     *
+     * @param taskList the TaskList the tasks were removed from
+     * @param tasks the tasks that were removed
+     */
+    public void recordDeletes(TaskList taskList, List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        if (journal == null) {
+            saveToStorage(taskList);
+            return;
+        }
+        try {
+            for (Task task : tasks) {
+                if (task.getKey() >= 0) {
+                    journal.appendDelete(task.getKey());
+                }
+            }
+            journal.flush();
+            compactor.maybeCompact();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Persists a group of mutations that were just made to the given TaskList, in order, with a single write.
+     *
+     * @param taskList the TaskList the mutations were made to
+     * @param entries the mutations, each as its journal entry
+     */
+    public void recordAll(TaskList taskList, List<TaskJournal.Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (journal == null) {
+            saveToStorage(taskList);
+            return;
+        }
+        try {
+            for (TaskJournal.Entry entry : entries) {
+                journal.append(entry);
+            }
+            journal.flush();
+            compactor.maybeCompact();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Blocks until every mutation recorded so far has been written out.
+     * Mutations are written as they are recorded, so there is nothing to wait for here.
+     */
+    public void flush() {
+    }
 }
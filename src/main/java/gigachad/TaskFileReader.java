@@ -0,0 +1,515 @@
+package gigachad;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import gigachad.exception.GigachadException;
+import gigachad.task.Deadline;
+import gigachad.task.Event;
+import gigachad.task.Task;
+import gigachad.task.TimestampCodec;
+import gigachad.task.ToDo;
+
+/**
+ * Reads tasks from the text storage format, one task per line:
+ * "T | isDone | description" for ToDo tasks
+ * "D | isDone | description | deadlineDateTime" for Deadline tasks
+ * "E | isDone | description | startDateTime - endDateTime" for Event tasks
+ * Lines may also be prefixed with a journal key, as in "key | T | isDone | description".
+ * The streaming reader tokenizes well-formed lines directly from the file bytes and hands any other line
+ * to the String-based parser, so corrupted lines are reported exactly as before.
+ */
+public class TaskFileReader {
+    /** Files at least this large are parsed in parallel. */
+    public static final long PARALLEL_THRESHOLD = 8 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int DATE_LENGTH = TimestampCodec.LENGTH;
+    private static final int EVENT_DATES_LENGTH = 2 * DATE_LENGTH + " - ".length();
+    private static final int MAX_FIELDS = 6;
+    private static final int CHUNK_SIZE = 2 * 1024 * 1024;
+
+    private final ArrayList<Task> listOfTasks;
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private final ArrayList<String> blankLines = new ArrayList<>();
+
+    private TaskFileReader(ArrayList<Task> listOfTasks) {
+        this.listOfTasks = listOfTasks;
+    }
+
+    /**
+     * Reads every task in the given file and appends them to the given list, in file order.
+     * Files of at least {@link #PARALLEL_THRESHOLD} bytes are parsed in parallel.
+     *
+     * @param filePath the file to read
+     * @param listOfTasks the list to append the loaded tasks to
+     * @throws IOException if the file cannot be read
+     */
+    public static void read(Path filePath, ArrayList<Task> listOfTasks) throws IOException {
+        if (Files.size(filePath) >= PARALLEL_THRESHOLD) {
+            readParallel(filePath, listOfTasks, CHUNK_SIZE);
+        } else {
+            readSequential(filePath, listOfTasks);
+        }
+    }
+
+    /**
+     * Reads every task in the given file through a file channel on the calling thread.
+     *
+     * @param filePath the file to read
+     * @param listOfTasks the list to append the loaded tasks to
+     * @throws IOException if the file cannot be read
+     */
+    public static void readSequential(Path filePath, ArrayList<Task> listOfTasks) throws IOException {
+        TaskFileReader reader = new TaskFileReader(listOfTasks);
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                int consumed = reader.readLines(buffer.array(), buffer.limit(), false);
+                buffer.position(consumed);
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    // a single line fills the whole buffer
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+                }
+            }
+            buffer.flip();
+            reader.readLines(buffer.array(), buffer.limit(), true);
+        }
+    }
+
+    /**
+     * Splits the given file into line-aligned chunks of roughly the given size, parses them in parallel
+     * on the common fork/join pool and appends the tasks to the given list in file order,
+     * so task numbers are the same as with {@link #readSequential(Path, ArrayList)}.
+     *
+     * @param filePath the file to read
+     * @param listOfTasks the list to append the loaded tasks to
+     * @param chunkSize the approximate number of bytes parsed by each fork/join task
+     * @throws IOException if the file cannot be read
+     */
+    public static void readParallel(Path filePath, ArrayList<Task> listOfTasks, int chunkSize) throws IOException {
+        assert chunkSize > 0 : "Chunk size must be positive";
+        ArrayList<ChunkTask> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkStart = 0;
+            while (chunkStart < size) {
+                long chunkEnd = findLineStart(channel, Math.min(size, chunkStart + chunkSize), size);
+                chunks.add(new ChunkTask(channel, chunkStart, (int) (chunkEnd - chunkStart)));
+                chunkStart = chunkEnd;
+            }
+
+            ForkJoinTask.invokeAll(chunks);
+            for (int i = 0; i < chunks.size() - 1; i++) {
+                if (chunks.get(i).hasTrailingBlankLines) {
+                    // whether those blank lines count depends on the chunks after them, so stay exact
+                    readSequential(filePath, listOfTasks);
+                    return;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        int taskCount = 0;
+        for (ChunkTask chunk : chunks) {
+            taskCount += chunk.join().size();
+        }
+        listOfTasks.ensureCapacity(listOfTasks.size() + taskCount);
+        for (ChunkTask chunk : chunks) {
+            listOfTasks.addAll(chunk.join());
+        }
+    }
+
+    /**
+     * Returns the offset of the first line starting at or after the given offset, or the file size if there is none.
+     */
+    private static long findLineStart(FileChannel channel, long offset, long size) throws IOException {
+        if (offset >= size) {
+            return size;
+        }
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        long position = offset - 1;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            int newline = indexOfNewline(window.array(), 0, read);
+            if (newline != -1) {
+                return position + newline + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses one line-aligned chunk of a task file.
+     */
+    private static class ChunkTask extends RecursiveTask<ArrayList<Task>> {
+        private static final long serialVersionUID = 1L;
+        private final transient FileChannel channel;
+        private final long start;
+        private final int length;
+        private boolean hasTrailingBlankLines;
+
+        ChunkTask(FileChannel channel, long start, int length) {
+            this.channel = channel;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        protected ArrayList<Task> compute() {
+            byte[] bytes = new byte[length];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) == -1) {
+                        throw new EOFException("Task file changed while it was being read");
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            ArrayList<Task> chunkTasks = new ArrayList<>();
+            TaskFileReader reader = new TaskFileReader(chunkTasks);
+            reader.readLines(bytes, length, true);
+            hasTrailingBlankLines = !reader.blankLines.isEmpty();
+            return chunkTasks;
+        }
+    }
+
+    /**
+     * Reads every task in the given file line by line with a {@link Scanner}.
+     * This is the original loader, kept as a reference for tests and benchmarks.
+     *
+     * @param filePath the file to read
+     * @param listOfTasks the list to append the loaded tasks to
+     * @throws IOException if the file cannot be read
+     */
+    public static void readWithScanner(Path filePath, ArrayList<Task> listOfTasks) throws IOException {
+        try (Scanner scanner = new Scanner(filePath.toFile())) {
+            while (scanner.hasNext()) {
+                String line = scanner.nextLine();
+                parseTaskLine(line, listOfTasks);
+            }
+        }
+    }
+
+    private static int indexOfNewline(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses every complete line in bytes[0, limit).
+     *
+     * @return the number of bytes consumed; the rest is an incomplete line unless isEndOfInput is true
+     */
+    private int readLines(byte[] bytes, int limit, boolean isEndOfInput) {
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int newline = indexOfNewline(bytes, lineStart, limit);
+            if (newline == -1 && !isEndOfInput) {
+                break;
+            }
+            int lineEnd = newline == -1 ? limit : newline;
+            int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            readLine(bytes, lineStart, contentEnd);
+            lineStart = newline == -1 ? limit : newline + 1;
+        }
+        return lineStart;
+    }
+
+    private void readLine(byte[] bytes, int start, int end) {
+        if (isBlank(bytes, start, end)) {
+            // like Scanner.hasNext(), blank lines only count if something follows them
+            blankLines.add(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            return;
+        }
+        for (String blankLine : blankLines) {
+            parseTaskLine(blankLine, listOfTasks);
+        }
+        blankLines.clear();
+
+        Task task = tokenizeTask(bytes, start, end);
+        if (task == null) {
+            parseTaskLine(new String(bytes, start, end - start, StandardCharsets.UTF_8), listOfTasks);
+        } else {
+            listOfTasks.add(task);
+        }
+    }
+
+    private static boolean isBlank(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(bytes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds a task straight from a well-formed line without splitting it into Strings.
+     *
+     * @return the task, or null if the line is not well-formed and must go through the String-based parser
+     */
+    private Task tokenizeTask(byte[] bytes, int start, int end) {
+        int fieldCount = splitFields(bytes, start, end);
+        if (fieldCount == -1) {
+            return null;
+        }
+
+        long key = -1;
+        int first = 0;
+        if (isDigit(bytes[start])) {
+            key = parseKey(bytes, fieldStarts[0], fieldEnds[0]);
+            if (key == -1) {
+                return null;
+            }
+            first = 1;
+        }
+        if (fieldCount - first < 3 || fieldEnds[first] - fieldStarts[first] != 1
+                || fieldEnds[first + 1] - fieldStarts[first + 1] != 1) {
+            return null;
+        }
+
+        byte type = bytes[fieldStarts[first]];
+        byte isDone = bytes[fieldStarts[first + 1]];
+        if (isDone != '0' && isDone != '1') {
+            return null;
+        }
+        int descriptionStart = fieldStarts[first + 2];
+        int descriptionEnd = fieldEnds[first + 2];
+        int remainingFields = fieldCount - first - 3;
+
+        Task task;
+        if (type == 'T' && remainingFields == 0) {
+            task = new ToDo(decode(bytes, descriptionStart, descriptionEnd));
+        } else if (type == 'D' && remainingFields == 1) {
+            int dateStart = fieldStarts[first + 3];
+            if (fieldEnds[first + 3] - dateStart != DATE_LENGTH) {
+                return null;
+            }
+            LocalDateTime by = TimestampCodec.parseStrict(bytes, dateStart);
+            if (by == null) {
+                return null;
+            }
+            task = new Deadline(decode(bytes, descriptionStart, descriptionEnd), by);
+        } else if (type == 'E' && remainingFields == 1) {
+            int datesStart = fieldStarts[first + 3];
+            if (fieldEnds[first + 3] - datesStart != EVENT_DATES_LENGTH
+                    || bytes[datesStart + DATE_LENGTH] != ' ' || bytes[datesStart + DATE_LENGTH + 1] != '-'
+                    || bytes[datesStart + DATE_LENGTH + 2] != ' ') {
+                return null;
+            }
+            LocalDateTime from = TimestampCodec.parseStrict(bytes, datesStart);
+            LocalDateTime to = TimestampCodec.parseStrict(bytes, datesStart + DATE_LENGTH + 3);
+            if (from == null || to == null) {
+                return null;
+            }
+            task = new Event(decode(bytes, descriptionStart, descriptionEnd), from, to);
+        } else {
+            return null;
+        }
+
+        if (isDone == '1') {
+            task.markAsDone();
+        }
+        task.setKey(key);
+        return task;
+    }
+
+    /**
+     * Records the bounds of each " | " separated field of the line.
+     *
+     * @return the number of fields, or -1 if there are too many or any of them is empty
+     */
+    private int splitFields(byte[] bytes, int start, int end) {
+        int fieldCount = 0;
+        int fieldStart = start;
+        int i = start;
+        while (i + 2 < end) {
+            if (bytes[i] == ' ' && bytes[i + 1] == '|' && bytes[i + 2] == ' ') {
+                if (fieldCount == MAX_FIELDS - 1 || i == fieldStart) {
+                    return -1;
+                }
+                fieldStarts[fieldCount] = fieldStart;
+                fieldEnds[fieldCount] = i;
+                fieldCount++;
+                i += 3;
+                fieldStart = i;
+            } else {
+                i++;
+            }
+        }
+        if (fieldStart == end) {
+            return -1;
+        }
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = end;
+        return fieldCount + 1;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static long parseKey(byte[] bytes, int start, int end) {
+        if (end - start > 18) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = start; i < end; i++) {
+            if (!isDigit(bytes[i])) {
+                return -1;
+            }
+            key = key * 10 + (bytes[i] - '0');
+        }
+        return key;
+    }
+
+    private static String decode(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a single, optionally keyed, line and appends the task to the given list if it is valid.
+     * A line with a malformed key, or with a key and nothing after it, is reported and skipped.
+     *
+     * @param line the line to parse
+     * @param listOfTasks the list to append the task to
+     */
+    static void parseTaskLine(String line, ArrayList<Task> listOfTasks) {
+        long key = -1;
+        if (!line.isEmpty() && Character.isDigit(line.charAt(0))) {
+            int keyEnd = line.indexOf(TaskJournal.SEPARATOR);
+            try {
+                key = keyEnd == -1 ? -1 : Long.parseLong(line.substring(0, keyEnd));
+            } catch (NumberFormatException e) {
+                key = -1;
+            }
+            if (key < 0) {
+                System.out.println("Invalid format! Corrupted file!");
+                return;
+            }
+            line = line.substring(keyEnd + TaskJournal.SEPARATOR.length());
+        }
+
+        Task task = parseTask(line);
+        if (task != null) {
+            task.setKey(key);
+            listOfTasks.add(task);
+        }
+    }
+
+    /**
+     * Parses a single task in its save format.
+     *
+     * @param line the task in its save format, without a journal key
+     * @return the task, or null if the line is corrupted
+     */
+    static Task parseTask(String line) {
+        String[] parts = line.split(" \\| ");
+        assert parts.length >= 3 : "Line must contain at least 3 parts: " + line;
+        String command = parts[0];
+        String isDone = parts[1];
+        String description = parts[2];
+
+        return switch (command) {
+        case "T" -> loadToDo(parts, isDone, description);
+        case "D" -> loadDeadline(parts, isDone, description);
+        case "E" -> loadEvent(parts, isDone, description);
+        default -> {
+            assert false : command;
+            yield null;
+        }
+        };
+    }
+
+    private static Task loadToDo(String[] parts, String isDone, String description) {
+        try {
+            if (parts.length == 3) {
+                ToDo todo = new ToDo(description);
+                if (Integer.parseInt(isDone) == 1) {
+                    todo.markAsDone();
+                }
+                return todo;
+            } else {
+                throw new GigachadException("Invalid format! Corrupted file!");
+            }
+        } catch (GigachadException e) {
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    private static Task loadDeadline(String[] parts, String isDone, String description) {
+        try {
+            if (parts.length != 4) {
+                throw new GigachadException("Invalid format! Corrupted file!");
+            }
+            String deadlineDueDate = parts[3];
+            Deadline deadline = new Deadline(description,
+                    LocalDateTime.parse(deadlineDueDate, TimestampCodec.FORMATTER));
+            if (Integer.parseInt(isDone) == 1) {
+                deadline.markAsDone();
+            }
+            return deadline;
+        } catch (GigachadException e) {
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    private static Task loadEvent(String[] parts, String isDone, String description) {
+        try {
+            if (parts.length != 4 || parts[3].split(" - ").length != 2) {
+                throw new GigachadException("Invalid format! Corrupted file!");
+            }
+
+            String[] fromToDates = parts[3].split(" - ");
+            String from = fromToDates[0];
+            String to = fromToDates[1];
+
+            if (description.isEmpty() || from.isEmpty() || to.isEmpty()) {
+                throw new GigachadException("Invalid format! Task description or date missing.");
+            }
+
+            Event event = new Event(description,
+                    LocalDateTime.parse(from, TimestampCodec.FORMATTER),
+                    LocalDateTime.parse(to, TimestampCodec.FORMATTER));
+
+            if (Integer.parseInt(isDone) == 1) {
+                event.markAsDone();
+            }
+            return event;
+        } catch (GigachadException e) {
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package gigachad;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of task mutations kept next to the task snapshot file.
+ * Each mutation is written as a single line in one of the forms:
+ * "ADD | key | (task save format)", "MARK | key", "UNMARK | key" or "DELETE | key".
+ * While a compaction is in progress, the older records live in a separate compacting segment
+ * and new records go to a fresh journal file.
+ * A last record with no line ending was cut short by a crash or a full disk. It is cut off the file before the
+ * journal is read or appended to, so it is never replayed and the next record starts on a line of its own.
+ */
+public class TaskJournal {
+    public static final String ADD = "ADD";
+    public static final String MARK = "MARK";
+    public static final String UNMARK = "UNMARK";
+    public static final String DELETE = "DELETE";
+    public static final String SEPARATOR = " | ";
+
+    /**
+     * One mutation, as it is written to the journal.
+     *
+     * @param type one of {@link #ADD}, {@link #MARK}, {@link #UNMARK} or {@link #DELETE}
+     * @param key the key of the task
+     * @param saveFormat the task in its save format for an ADD, otherwise null
+     */
+    public record Entry(String type, long key, String saveFormat) {
+    }
+
+    private final Path journalPath;
+    private final Path compactingPath;
+    private FileOutputStream file;
+    private BufferedOutputStream out;
+    private long recordCount;
+    private long byteCount;
+    private boolean isTornRecordDropped = false;
+
+    /**
+     * Constructs a TaskJournal that logs mutations for the given snapshot file.
+     * The journal is stored alongside the snapshot as "(snapshot file name).journal".
+     *
+     * @param snapshotPath the path to the snapshot file the journal belongs to
+     */
+    public TaskJournal(Path snapshotPath) {
+        assert snapshotPath != null : "Snapshot path must not be null";
+        this.journalPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal");
+        this.compactingPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal.compacting");
+    }
+
+    public Path getPath() {
+        return journalPath;
+    }
+
+    public Path getCompactingPath() {
+        return compactingPath;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Reads every record not yet folded into the snapshot, in the order they were appended.
+     * Records in a compacting segment left behind by an interrupted compaction come first.
+     *
+     * @return the journal records, or an empty list if there are none
+     * @throws IOException if the journal cannot be read
+     */
+    public List<String> readRecords() throws IOException {
+        List<String> records = readCompactingRecords();
+        if (Files.exists(journalPath)) {
+            dropTornRecord(journalPath);
+            isTornRecordDropped = true;
+            List<String> liveRecords = Files.readAllLines(journalPath, StandardCharsets.UTF_8);
+            recordCount = liveRecords.size();
+            byteCount = Files.size(journalPath);
+            records.addAll(liveRecords);
+        }
+        return records;
+    }
+
+    /**
+     * Reads the records in the compacting segment.
+     *
+     * @return the records waiting to be folded into the snapshot, or an empty list if there is no segment
+     * @throws IOException if the segment cannot be read
+     */
+    public List<String> readCompactingRecords() throws IOException {
+        if (Files.notExists(compactingPath)) {
+            return new ArrayList<>();
+        }
+        dropTornRecord(compactingPath);
+        return Files.readAllLines(compactingPath, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cuts the file back to just after its last line ending, dropping a record that was only partly written.
+     * Only the end of the file is read, so this is cheap however long the journal is.
+     */
+    private static void dropTornRecord(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            long end = channel.size();
+            while (end > 0) {
+                int length = (int) Math.min(buffer.capacity(), end);
+                buffer.clear().limit(length);
+                long position = end - length;
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("Unexpected end of the journal");
+                    }
+                }
+                int newline = length - 1;
+                while (newline >= 0 && buffer.get(newline) != '\n') {
+                    newline--;
+                }
+                if (newline >= 0) {
+                    end = position + newline + 1;
+                    break;
+                }
+                end = position;
+            }
+            if (end < channel.size()) {
+                channel.truncate(end);
+            }
+        }
+    }
+
+    public void appendAdd(long key, String saveFormat) throws IOException {
+        append(ADD + SEPARATOR + key + SEPARATOR + saveFormat);
+    }
+
+    public void appendMark(long key) throws IOException {
+        append(MARK + SEPARATOR + key);
+    }
+
+    public void appendUnmark(long key) throws IOException {
+        append(UNMARK + SEPARATOR + key);
+    }
+
+    public void appendDelete(long key) throws IOException {
+        append(DELETE + SEPARATOR + key);
+    }
+
+    /**
+     * Appends the record for a single mutation.
+     */
+    public void append(Entry entry) throws IOException {
+        switch (entry.type()) {
+        case ADD -> appendAdd(entry.key(), entry.saveFormat());
+        case MARK -> appendMark(entry.key());
+        case UNMARK -> appendUnmark(entry.key());
+        case DELETE -> appendDelete(entry.key());
+        default -> {
+            assert false : entry.type();
+        }
+        }
+    }
+
+    private void append(String record) throws IOException {
+        if (out == null) {
+            if (!isTornRecordDropped && Files.exists(journalPath)) {
+                dropTornRecord(journalPath);
+            }
+            isTornRecordDropped = true;
+            file = new FileOutputStream(journalPath.toFile(), true);
+            out = new BufferedOutputStream(file);
+        }
+        byte[] bytes = (record + "\n").getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        recordCount++;
+        byteCount += bytes.length;
+    }
+
+    /**
+     * Hands every appended record over to the operating system.
+     * The records survive the application crashing, but not necessarily the machine losing power.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes every appended record and forces it to the storage device.
+     *
+     * @throws IOException if the records cannot be written or synced
+     */
+    public void sync() throws IOException {
+        if (out != null) {
+            out.flush();
+            file.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Moves the current journal aside as the compacting segment so that new records start a fresh journal.
+     *
+     * @return true if the journal was rotated, false if a compacting segment is still waiting to be folded
+     * @throws IOException if the journal cannot be moved
+     */
+    public boolean rotate() throws IOException {
+        if (Files.exists(compactingPath)) {
+            return false;
+        }
+        close();
+        if (Files.exists(journalPath)) {
+            Files.move(journalPath, compactingPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+        recordCount = 0;
+        byteCount = 0;
+        return true;
+    }
+
+    /**
+     * Discards every record in the journal, including any compacting segment.
+     * Called once the records have been folded into a new snapshot.
+     *
+     * @throws IOException if the journal cannot be truncated
+     */
+    public void truncate() throws IOException {
+        close();
+        Files.deleteIfExists(journalPath);
+        Files.deleteIfExists(compactingPath);
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Closes the underlying file, if one is open. Later appends reopen the journal.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+            file = null;
+        }
+    }
+}
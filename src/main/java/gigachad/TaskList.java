@@ -1,15 +1,37 @@
 package gigachad;
 
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Predicate;
 
+import gigachad.task.Deadline;
+import gigachad.task.Event;
 import gigachad.task.Task;
 
 /**
- * TaskList class to hold the list of tasks in an ArrayList
+ * TaskList class to hold the list of tasks in an ArrayList.
+ * Tasks can also be found by their ID, which is the key Storage gives them. Deleting a task, by ID or by position,
+ * leaves a null tombstone in place of the task instead of shifting every later task, so the ID index stays valid.
+ * While there are tombstones, tasks are found by position through a {@link PositionIndex} over the live tasks,
+ * and the tombstones are only cleared out once they outnumber the tasks, or a whole-list operation needs to.
+ * The list counts its changes, so that whatever was worked out from it can tell whether it is still up to date.
  */
-public class TaskList {
+public class TaskList implements Iterable<Task> {
     protected ArrayList<Task> listOfTasks;
+    private int deletedCount = 0;
+    private LongIntMap positionOfId;
+    /** Finds tasks by position across the tombstones. Only built while there are tombstones. */
+    private PositionIndex livePositions;
+    private int indexedCount;
+    private KeywordIndex keywordIndex;
+    private TrigramIndex trigramIndex;
+    private DeadlineIndex deadlineIndex;
+    private EventIntervalTree eventTree;
+    private long version = 0;
 
     public TaskList() {
         this.listOfTasks = new ArrayList<>();
@@ -21,25 +43,497 @@ public class TaskList {
 
     public void addTask(Task task) {
         listOfTasks.add(task);
+        if (positionOfId != null && task.getKey() >= 0) {
+            positionOfId.put(task.getKey(), listOfTasks.size() - 1);
+            indexedCount++;
+        }
+        if (livePositions != null && livePositions.length() == listOfTasks.size() - 1) {
+            livePositions.append();
+        }
+        onTaskAdded(task);
+        changed();
     }
 
     public Task getTask(int index) {
-        return listOfTasks.get(index);
+        return listOfTasks.get(backingPosition(index));
     }
 
+    /**
+     * Removes the task at the given position, leaving a tombstone in its place.
+     *
+     * @param index the zero-based position of the task
+     * @return the removed task
+     */
     public Task deleteTask(int index) {
-        return listOfTasks.remove(index);
+        int position = backingPosition(index);
+        Task removedTask = listOfTasks.get(position);
+        if (positionOfId != null && removedTask.getKey() >= 0
+                && positionOfId.get(removedTask.getKey()) == position) {
+            positionOfId.remove(removedTask.getKey());
+            indexedCount--;
+        }
+        tombstone(position);
+        onTaskRemoved(removedTask);
+        changed();
+        if (deletedCount > size()) {
+            removeTombstones();
+        }
+        return removedTask;
+    }
+
+    /**
+     * Returns where the task at the given position is in the backing list, which has tombstones in it.
+     */
+    private int backingPosition(int index) {
+        if (deletedCount == 0) {
+            return index;
+        }
+        Objects.checkIndex(index, size());
+        if (livePositions == null || livePositions.length() != listOfTasks.size()) {
+            livePositions = new PositionIndex(listOfTasks);
+        }
+        return livePositions.positionOf(index);
+    }
+
+    /**
+     * Replaces the task at the given backing position with a tombstone.
+     */
+    private void tombstone(int position) {
+        listOfTasks.set(position, null);
+        deletedCount++;
+        if (livePositions != null && livePositions.length() == listOfTasks.size()) {
+            livePositions.remove(position);
+        }
+    }
+
+    /**
+     * Returns the positions of the tasks that satisfy the predicate, in list order.
+     *
+     * @param predicate the condition a task has to meet to be selected
+     */
+    public BitSet selectTasks(Predicate<Task> predicate) {
+        BitSet selected = new BitSet();
+        int position = 0;
+        for (Task task : this) {
+            if (predicate.test(task)) {
+                selected.set(position);
+            }
+            position++;
+        }
+        return selected;
+    }
+
+    /**
+     * Removes every task at the given positions in one pass, moving each remaining task at most once.
+     * If most of the list is removed, the indexes are dropped and rebuilt when next queried instead of being
+     * updated task by task.
+     *
+     * @param positions the zero-based positions of the tasks to remove, all less than {@link #size()}
+     * @return the removed tasks, in list order
+     */
+    public ArrayList<Task> deleteTasks(BitSet positions) {
+        removeTombstones();
+        assert positions.length() <= listOfTasks.size() : "position out of range";
+        ArrayList<Task> removedTasks = new ArrayList<>(positions.cardinality());
+        int kept = positions.nextSetBit(0);
+        if (kept < 0) {
+            return removedTasks;
+        }
+        for (int i = kept; i < listOfTasks.size(); i++) {
+            Task task = listOfTasks.get(i);
+            if (positions.get(i)) {
+                removedTasks.add(task);
+            } else {
+                listOfTasks.set(kept++, task);
+            }
+        }
+        listOfTasks.subList(kept, listOfTasks.size()).clear();
+        positionOfId = null;
+        forgetRemovedTasks(removedTasks);
+        changed();
+        return removedTasks;
+    }
+
+    /**
+     * Takes tasks that were just removed together out of the indexes, or drops the indexes if that is cheaper.
+     */
+    private void forgetRemovedTasks(ArrayList<Task> removedTasks) {
+        if (removedTasks.size() > size()) {
+            clearIndexes();
+            return;
+        }
+        for (Task task : removedTasks) {
+            onTaskRemoved(task);
+        }
+    }
+
+    /**
+     * Marks or unmarks every task at the given positions.
+     *
+     * @param positions the zero-based positions of the tasks, all less than {@link #size()}
+     * @param isDone whether to mark the tasks as done rather than not done
+     * @return the tasks whose done status changed, in list order
+     */
+    public ArrayList<Task> markTasks(BitSet positions, boolean isDone) {
+        ArrayList<Task> changedTasks = new ArrayList<>();
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            Task task = getTask(i);
+            if (task.getIsDone() == isDone) {
+                continue;
+            }
+            if (isDone) {
+                task.markAsDone();
+            } else {
+                task.unmark();
+            }
+            updateStatus(task);
+            changedTasks.add(task);
+        }
+        return changedTasks;
+    }
+
+    /**
+     * Returns the task most recently added to the list, as the list holds it.
+     */
+    public Task getLastTask() {
+        for (int i = listOfTasks.size() - 1; i >= 0; i--) {
+            if (listOfTasks.get(i) != null) {
+                return listOfTasks.get(i);
+            }
+        }
+        throw new IndexOutOfBoundsException("The list is empty");
+    }
+
+    /**
+     * Returns the task with the given ID, or null if there is none.
+     *
+     * @param id the key Storage gave the task
+     */
+    public Task getTaskById(long id) {
+        int position = positionOf(id);
+        return position == LongIntMap.MISSING ? null : listOfTasks.get(position);
+    }
+
+    /**
+     * Removes the task with the given ID, leaving a tombstone in its place.
+     *
+     * @param id the key Storage gave the task
+     * @return the removed task, or null if there is none with that ID
+     */
+    public Task deleteTaskById(long id) {
+        int position = positionOf(id);
+        if (position == LongIntMap.MISSING) {
+            return null;
+        }
+        Task removedTask = listOfTasks.get(position);
+        positionOfId.remove(id);
+        indexedCount--;
+        tombstone(position);
+        onTaskRemoved(removedTask);
+        changed();
+        if (deletedCount > size()) {
+            removeTombstones();
+        }
+        return removedTask;
+    }
+
+    /**
+     * Returns where the task with the given ID is in the backing list, or {@link LongIntMap#MISSING}.
+     * The ID index is built on first use. Tasks that had no ID yet when it was built, or that were added
+     * behind its back, are picked up by rebuilding it when an ID is not found.
+     */
+    private int positionOf(long id) {
+        if (id < 0) {
+            return LongIntMap.MISSING;
+        }
+        if (positionOfId == null) {
+            indexIds();
+        }
+        int position = positionOfId.get(id);
+        boolean isStale = position == LongIntMap.MISSING ? indexedCount != size()
+                : listOfTasks.get(position) == null || listOfTasks.get(position).getKey() != id;
+        if (isStale) {
+            indexIds();
+            position = positionOfId.get(id);
+        }
+        return position;
+    }
+
+    private void indexIds() {
+        positionOfId = new LongIntMap(size());
+        indexedCount = 0;
+        for (int i = 0; i < listOfTasks.size(); i++) {
+            Task task = listOfTasks.get(i);
+            if (task != null && task.getKey() >= 0) {
+                positionOfId.put(task.getKey(), i);
+                indexedCount++;
+            }
+        }
+    }
+
+    /**
+     * Clears out the tombstones left by deleting tasks, so that positions in the list are list numbers again.
+     */
+    private void removeTombstones() {
+        if (deletedCount == 0) {
+            return;
+        }
+        listOfTasks.removeIf(Objects::isNull);
+        deletedCount = 0;
+        positionOfId = null;
+        livePositions = null;
+    }
+
+    /**
+     * The contents of a list at one point in time, which only that list can be rolled back to.
+     */
+    public interface Snapshot {
+    }
+
+    private record ListSnapshot(TaskList owner, Task[] tasks, BitSet doneTasks) implements Snapshot {
+    }
+
+    /**
+     * Saves the tasks in the list and whether each is done, so that {@link #restore(Snapshot)} can undo
+     * any changes made after this. Takes time in proportion to the number of tasks, but copies no task.
+     */
+    public Snapshot snapshot() {
+        removeTombstones();
+        Task[] tasks = listOfTasks.toArray(new Task[0]);
+        BitSet doneTasks = new BitSet(tasks.length);
+        for (int i = 0; i < tasks.length; i++) {
+            if (tasks[i].getIsDone()) {
+                doneTasks.set(i);
+            }
+        }
+        return new ListSnapshot(this, tasks, doneTasks);
+    }
+
+    /**
+     * Rolls the list back to a snapshot it took, undoing every add, delete, mark and unmark since.
+     * The indexes are dropped, to be rebuilt from the restored list when next queried.
+     *
+     * @param snapshot a snapshot taken by this list
+     */
+    public void restore(Snapshot snapshot) {
+        ListSnapshot saved = (ListSnapshot) snapshot;
+        assert saved.owner() == this : "snapshot belongs to another list";
+        listOfTasks.clear();
+        for (int i = 0; i < saved.tasks().length; i++) {
+            Task task = saved.tasks()[i];
+            if (saved.doneTasks().get(i)) {
+                task.markAsDone();
+            } else {
+                task.unmark();
+            }
+            listOfTasks.add(task);
+        }
+        deletedCount = 0;
+        positionOfId = null;
+        livePositions = null;
+        clearIndexes();
+        changed();
+    }
+
+    /**
+     * Adds a task that was just appended to the list to whichever indexes have been built.
+     *
+     * @param task the task as the list holds it
+     */
+    protected void onTaskAdded(Task task) {
+        if (keywordIndex != null) {
+            keywordIndex.add(task);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.add(task);
+        }
+        if (deadlineIndex != null && task instanceof Deadline deadline) {
+            deadlineIndex.add(deadline);
+        }
+        if (eventTree != null && task instanceof Event event) {
+            eventTree.add(event);
+        }
+    }
+
+    /**
+     * Removes a task that was just taken out of the list from whichever indexes have been built.
+     *
+     * @param task the task as the list held it
+     */
+    protected void onTaskRemoved(Task task) {
+        if (keywordIndex != null) {
+            keywordIndex.remove(task);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.remove(task);
+        }
+        if (deadlineIndex != null && task instanceof Deadline deadline) {
+            deadlineIndex.remove(deadline);
+        }
+        if (eventTree != null && task instanceof Event event) {
+            eventTree.remove(event);
+        }
+    }
+
+    /**
+     * Returns whether any index has been built and so needs to hear about added and removed tasks.
+     */
+    protected boolean hasIndexes() {
+        return keywordIndex != null || trigramIndex != null || deadlineIndex != null || eventTree != null;
+    }
+
+    /**
+     * Drops every index, so that each is rebuilt from the list the next time it is queried.
+     */
+    protected void clearIndexes() {
+        keywordIndex = null;
+        trigramIndex = null;
+        deadlineIndex = null;
+        eventTree = null;
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain every word and quoted phrase in the query, in list order.
+     * The keyword index is built on the first search and kept up to date by addTask and deleteTask afterwards.
+     *
+     * @param query the words and quoted phrases to look for
+     */
+    public ArrayList<Task> findTasks(String query) {
+        if (keywordIndex == null) {
+            keywordIndex = new KeywordIndex();
+            for (Task task : this) {
+                keywordIndex.add(task);
+            }
+        }
+        return keywordIndex.search(query);
+    }
+
+    /**
+     * Returns up to the given number of tasks whose descriptions most resemble the query, best match first.
+     * Like the keyword index, the trigram index is built on the first search and kept up to date afterwards.
+     *
+     * @param query the text to look for, which may be misspelt or part of a word
+     * @param limit the maximum number of tasks to return
+     */
+    public ArrayList<Task> findSimilarTasks(String query, int limit) {
+        if (trigramIndex == null) {
+            trigramIndex = new TrigramIndex();
+            for (Task task : this) {
+                trigramIndex.add(task);
+            }
+        }
+        return trigramIndex.search(query, limit);
+    }
+
+    /**
+     * Keeps the indexes in step after a task in this list is marked or unmarked.
+     *
+     * @param task the task whose done status may have changed
+     */
+    public void updateStatus(Task task) {
+        if (deadlineIndex != null && task instanceof Deadline deadline) {
+            deadlineIndex.updateStatus(deadline);
+        }
+        changed();
+    }
+
+    /**
+     * Returns a number that changes whenever a task is added, removed, marked or unmarked, or the list is restored.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Counts a change to the list. Subclasses that change the list without going through this class call it.
+     */
+    protected void changed() {
+        version++;
+    }
+
+    /**
+     * Returns the deadlines due between the given times, both inclusive, earliest first.
+     * The deadline index is built on the first query and kept up to date afterwards.
+     *
+     * @param from the earliest due time to include
+     * @param to the latest due time to include
+     * @param isPendingOnly whether to leave out deadlines that are already done
+     */
+    public ArrayList<Task> findDueTasks(LocalDateTime from, LocalDateTime to, boolean isPendingOnly) {
+        if (deadlineIndex == null) {
+            deadlineIndex = new DeadlineIndex();
+            for (Task task : this) {
+                if (task instanceof Deadline deadline) {
+                    deadlineIndex.add(deadline);
+                }
+            }
+        }
+        return new ArrayList<>(deadlineIndex.dueBetween(from, to, isPendingOnly));
+    }
+
+    private EventIntervalTree eventTree() {
+        if (eventTree == null) {
+            eventTree = new EventIntervalTree();
+            for (Task task : this) {
+                if (task instanceof Event event) {
+                    eventTree.add(event);
+                }
+            }
+        }
+        return eventTree;
+    }
+
+    /**
+     * Returns the events that overlap the period from one time up to, but not including, another,
+     * ordered by start time. The event interval tree is built on the first query and kept up to date afterwards.
+     *
+     * @param from the start of the period
+     * @param to the end of the period
+     */
+    public ArrayList<Task> findOverlappingEvents(LocalDateTime from, LocalDateTime to) {
+        return new ArrayList<>(eventTree().overlapping(from, to));
+    }
+
+    /**
+     * Returns the events taking place at the given time, ordered by start time.
+     *
+     * @param time the time to check
+     */
+    public ArrayList<Task> findEventsAt(LocalDateTime time) {
+        return new ArrayList<>(eventTree().at(time));
+    }
+
+    /**
+     * Returns the gaps between events in the period from one time up to another, as pairs of start and end times.
+     *
+     * @param from the start of the period
+     * @param to the end of the period
+     */
+    public ArrayList<LocalDateTime[]> findFreePeriods(LocalDateTime from, LocalDateTime to) {
+        return eventTree().freePeriods(from, to);
     }
 
     public boolean isEmpty() {
-        return listOfTasks.isEmpty();
+        return size() == 0;
     }
 
     public ArrayList<Task> allTasks() {
+        removeTombstones();
         return this.listOfTasks;
     }
 
+    /**
+     * Returns the tasks in list order. Unlike {@link #allTasks()}, this never copies the list.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        if (deletedCount == 0) {
+            return listOfTasks.iterator();
+        }
+        return listOfTasks.stream().filter(Objects::nonNull).iterator();
+    }
+
     public int size() {
-        return listOfTasks.size();
+        return listOfTasks.size() - deletedCount;
     }
 }
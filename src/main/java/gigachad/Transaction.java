@@ -0,0 +1,141 @@
+package gigachad;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gigachad.exception.GigachadException;
+
+/**
+ * Several commands typed on one line, separated by semicolons, as in {@code todo a; todo b; mark 1}.
+ * A semicolon only separates commands when a command word follows it, so {@code todo buy milk; eggs} is still
+ * one todo, and {@code \;} is always a literal semicolon.
+ * The commands run in order against the TaskList and are persisted together with a single write.
+ * If any of them fails, none of them takes effect: the TaskList is rolled back to how it was before the line,
+ * and nothing is written.
+ */
+public class Transaction {
+    public static final char SEPARATOR = ';';
+    public static final char ESCAPE = '\\';
+    private static final String EXIT_COMMAND = "bye";
+
+    private final ArrayList<Command> commands;
+
+    private Transaction(ArrayList<Command> commands) {
+        this.commands = commands;
+    }
+
+    /**
+     * Returns whether the input has to go through a transaction, because it may hold several commands
+     * or escaped semicolons.
+     *
+     * @param input one line of user input
+     */
+    public static boolean isTransaction(String input) {
+        return input.indexOf(SEPARATOR) >= 0;
+    }
+
+    /**
+     * Splits a line into its commands at each semicolon followed by a command word,
+     * turning escaped semicolons into plain ones.
+     *
+     * @param input one line of user input
+     * @return the commands on the line, in order, not yet stripped
+     */
+    public static List<String> split(String input) {
+        ArrayList<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder(input.length());
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == ESCAPE && i + 1 < input.length() && input.charAt(i + 1) == SEPARATOR) {
+                part.append(SEPARATOR);
+                i++;
+            } else if (c == SEPARATOR && isCommandWordAt(input, i + 1)) {
+                parts.add(part.toString());
+                part.setLength(0);
+            } else {
+                part.append(c);
+            }
+        }
+        parts.add(part.toString());
+        return parts;
+    }
+
+    private static boolean isCommandWordAt(String input, int from) {
+        int start = from;
+        while (start < input.length() && Character.isWhitespace(input.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < input.length() && !Character.isWhitespace(input.charAt(end)) && input.charAt(end) != SEPARATOR) {
+            end++;
+        }
+        return Command.isCommandWord(input.substring(start, end));
+    }
+
+    /**
+     * Parses every command on the line before any of them runs, so a line with a command missing is
+     * turned down as a whole.
+     *
+     * @param input one line of user input with commands separated by semicolons
+     * @return the transaction, ready to execute
+     * @throws GigachadException if a command is blank, or is bye among other commands, which cannot be undone
+     */
+    public static Transaction parse(String input) throws GigachadException {
+        List<String> parts = split(input);
+        ArrayList<Command> commands = new ArrayList<>(parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            String part = parts.get(i).strip();
+            if (part.isEmpty()) {
+                throw new GigachadException("Command " + (i + 1) + " on the line is blank!");
+            }
+            if (parts.size() > 1 && CommandInput.tokenize(part).tokenEqualsIgnoreCase(0, EXIT_COMMAND)) {
+                throw new GigachadException("bye has to be on a line of its own!");
+            }
+            commands.add(Parser.parse(part));
+        }
+        return new Transaction(commands);
+    }
+
+    /**
+     * Runs every command in order and then persists all of their changes at once.
+     *
+     * @param listOfTasks the TaskList the commands act on
+     * @param ui the Ui the commands build their responses with
+     * @param storage the Storage to persist the changes to
+     * @return the responses of the commands, one after another
+     * @throws GigachadException if a command fails, in which case the TaskList is left as it was
+     */
+    public String execute(TaskList listOfTasks, Ui ui, Storage storage) throws GigachadException {
+        if (commands.size() == 1) {
+            // a line whose semicolons are all part of one command needs no rollback
+            return commands.get(0).execute(listOfTasks, ui, storage);
+        }
+        TaskList.Snapshot before = listOfTasks.snapshot();
+        DeferredStorage deferred = new DeferredStorage(storage);
+        StringBuilder responses = new StringBuilder();
+        boolean isCommitted = false;
+        int i = 0;
+        try {
+            for (; i < commands.size(); i++) {
+                if (i > 0) {
+                    responses.append("\n");
+                }
+                responses.append(commands.get(i).execute(listOfTasks, ui, deferred));
+            }
+            deferred.commit(listOfTasks);
+            isCommitted = true;
+        } catch (GigachadException e) {
+            throw new GigachadException("Command " + (i + 1) + " failed, so none of the commands on the line"
+                    + " were carried out: " + e.getMessage());
+        } finally {
+            if (!isCommitted) {
+                listOfTasks.restore(before);
+            }
+        }
+        return responses.toString();
+    }
+
+    public int size() {
+        return commands.size();
+    }
+}
@@ -0,0 +1,262 @@
+package gigachad;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+import gigachad.task.Task;
+
+/**
+ * Character trigram index over task descriptions, used for fuzzy and substring search.
+ * Descriptions are lower-cased, runs of other characters become a single space, and the result is padded
+ * with a space on each side before being cut into overlapping three-character pieces.
+ * A task matches a query when it shares enough of the query's trigrams, and matches are ranked by
+ * how much of the query they cover.
+ * Internally tasks are known by ordinals given in list order, and a list that already numbers its tasks,
+ * such as {@link CompactTaskList}, can index those numbers directly without handing over any task.
+ */
+public class TrigramIndex {
+    /** The fraction of the query's trigrams a task must share to be returned. */
+    public static final double MIN_COVERAGE = 0.3;
+
+    private record Match(boolean isSubstring, int shared, double dice, int ordinal) {
+    }
+
+    /** Best match first: whole substrings, then query coverage, then closeness in length, then list order. */
+    private static final Comparator<Match> RANKING = Comparator.comparing(Match::isSubstring).reversed()
+            .thenComparing(Comparator.comparingInt(Match::shared).reversed())
+            .thenComparing(Comparator.comparingDouble(Match::dice).reversed())
+            .thenComparingInt(Match::ordinal);
+
+    /**
+     * Ordinals of the tasks containing one trigram, in ascending order.
+     * Ordinals of removed tasks stay until the next rebuild and are skipped when read.
+     */
+    private static class Posting {
+        private int[] ordinals = new int[4];
+        private int size = 0;
+
+        private void append(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        private boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+    }
+
+    private final HashMap<Long, Posting> postings = new HashMap<>();
+    private final HashMap<Task, Integer> ordinalOf = new HashMap<>();
+    private final ArrayList<Task> tasksByOrdinal = new ArrayList<>();
+    private int[] trigramCounts = new int[16];
+    private int[] sharedScratch = new int[16];
+    private int removedCount = 0;
+
+    /**
+     * Lower-cases the text and collapses every run of characters other than letters and digits into one space,
+     * with a space on each side.
+     */
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length() + 2).append(' ');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            } else if (normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        if (normalized.charAt(normalized.length() - 1) != ' ') {
+            normalized.append(' ');
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Returns the distinct trigrams of normalized text, each packed into a long, in ascending order.
+     */
+    private static long[] trigrams(String normalized) {
+        int count = Math.max(0, normalized.length() - 2);
+        long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = (long) normalized.charAt(i) << 32 | (long) normalized.charAt(i + 1) << 16
+                    | normalized.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    /**
+     * Adds a task to the index. Tasks must be added in list order.
+     *
+     * @param task the task to index
+     */
+    public void add(Task task) {
+        int ordinal = tasksByOrdinal.size();
+        tasksByOrdinal.add(task);
+        ordinalOf.put(task, ordinal);
+        add(ordinal, task.getDescription());
+    }
+
+    /**
+     * Adds a description to the index under the given ordinal, which must be greater than any added before.
+     *
+     * @param ordinal the number the caller knows the task by
+     * @param description the description of the task
+     */
+    void add(int ordinal, String description) {
+        long[] taskTrigrams = trigrams(normalize(description));
+        if (ordinal >= trigramCounts.length) {
+            trigramCounts = Arrays.copyOf(trigramCounts, Math.max(ordinal + 1, trigramCounts.length * 2));
+        }
+        trigramCounts[ordinal] = taskTrigrams.length;
+        for (long trigram : taskTrigrams) {
+            postings.computeIfAbsent(trigram, t -> new Posting()).append(ordinal);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     * Its postings are left in place and skipped by searches until enough tasks are removed to make
+     * rebuilding the index cheaper than carrying them.
+     *
+     * @param task the task to remove
+     */
+    public void remove(Task task) {
+        Integer ordinal = ordinalOf.remove(task);
+        if (ordinal == null) {
+            return;
+        }
+        tasksByOrdinal.set(ordinal, null);
+        removedCount++;
+        if (removedCount > ordinalOf.size()) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        ArrayList<Task> liveTasks = new ArrayList<>(ordinalOf.size());
+        for (Task task : tasksByOrdinal) {
+            if (task != null) {
+                liveTasks.add(task);
+            }
+        }
+        postings.clear();
+        ordinalOf.clear();
+        tasksByOrdinal.clear();
+        removedCount = 0;
+        for (Task task : liveTasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Returns up to the given number of tasks most similar to the query, best match first.
+     * Tasks containing the query as a substring always rank above those that only resemble it.
+     *
+     * @param query the text to look for
+     * @param limit the maximum number of tasks to return
+     */
+    public ArrayList<Task> search(String query, int limit) {
+        ArrayList<Task> matches = new ArrayList<>();
+        for (int ordinal : search(query, limit, ordinal -> tasksByOrdinal.get(ordinal) != null,
+                ordinal -> tasksByOrdinal.get(ordinal).getDescription())) {
+            matches.add(tasksByOrdinal.get(ordinal));
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the ordinals of up to the given number of tasks most similar to the query, best match first.
+     *
+     * @param query the text to look for
+     * @param limit the maximum number of tasks to return
+     * @param isLive whether the task with an ordinal is still in the list
+     * @param descriptionOf the description of the task with an ordinal, for the substring check
+     */
+    int[] search(String query, int limit, IntPredicate isLive, IntFunction<String> descriptionOf) {
+        assert limit > 0 : "limit should be positive";
+        String normalizedQuery = normalize(query);
+        long[] queryTrigrams = trigrams(normalizedQuery);
+        int queryCount = queryTrigrams.length;
+        ArrayList<Posting> lists = new ArrayList<>(queryCount);
+        for (long trigram : queryTrigrams) {
+            lists.add(postings.getOrDefault(trigram, new Posting()));
+        }
+        if (queryCount == 0) {
+            return new int[0];
+        }
+        lists.sort(Comparator.comparingInt(posting -> posting.size));
+
+        // A task missing from every one of the first (queryCount - minShared + 1) lists cannot reach minShared,
+        // so only those shortest lists are scanned for candidates and the longer ones are just probed.
+        int minShared = Math.max(1, (int) Math.ceil(MIN_COVERAGE * queryCount));
+        int scannedLists = queryCount - minShared + 1;
+        if (sharedScratch.length < trigramCounts.length) {
+            sharedScratch = new int[trigramCounts.length];
+        }
+        int[] shared = sharedScratch;
+        int[] candidates = new int[16];
+        int candidateCount = 0;
+        for (int i = 0; i < scannedLists; i++) {
+            Posting posting = lists.get(i);
+            for (int j = 0; j < posting.size; j++) {
+                int ordinal = posting.ordinals[j];
+                if (shared[ordinal]++ == 0) {
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    }
+                    candidates[candidateCount++] = ordinal;
+                }
+            }
+        }
+        for (int i = scannedLists; i < queryCount; i++) {
+            Posting posting = lists.get(i);
+            for (int j = 0; j < candidateCount; j++) {
+                if (posting.contains(candidates[j])) {
+                    shared[candidates[j]]++;
+                }
+            }
+        }
+
+        // keep the best matches in a heap whose head is the worst of them
+        String trimmedQuery = normalizedQuery.trim();
+        PriorityQueue<Match> best = new PriorityQueue<>(RANKING.reversed());
+        for (int j = 0; j < candidateCount; j++) {
+            int ordinal = candidates[j];
+            int sharedCount = shared[ordinal];
+            shared[ordinal] = 0;
+            if (sharedCount < minShared || !isLive.test(ordinal)) {
+                continue;
+            }
+            // the padded query has at most two trigrams that a substring occurrence might not share
+            boolean isSubstring = sharedCount >= queryCount - 2
+                    && normalize(descriptionOf.apply(ordinal)).contains(trimmedQuery);
+            double dice = 2.0 * sharedCount / (queryCount + trigramCounts[ordinal]);
+            Match match = new Match(isSubstring, sharedCount, dice, ordinal);
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (RANKING.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        ArrayList<Match> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream().mapToInt(Match::ordinal).toArray();
+    }
+}
@@ -1,43 +1,21 @@
 package gigachad;
 
-import java.util.Scanner;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 
 import gigachad.task.Task;
-import javafx.animation.PauseTransition;
-import javafx.application.Platform;
-import javafx.util.Duration;
+import gigachad.task.TimestampCodec;
 
 /**
- * Handles all user interface interactions for the gigachad application.
- * This class is responsible for displaying messages to the user and reading input commands.
- * It provides methods for various UI operations like welcoming the user, displaying tasks,
- * and showing operation results.
+ * Builds the messages gigachad shows the user, as plain text.
+ * This class is responsible for the wording of every response, such as welcoming the user, displaying tasks,
+ * and showing operation results. It knows nothing of how they are shown: each {@link UserInterface} extends it
+ * with its own way of reading input, showing responses and closing when the user says bye.
  */
 public class Ui {
-    protected Scanner scanner;
-
-    /**
-     * Constructs a new Ui instance and initialises the scanner for reading user input using keyboard.
-     */
-    public Ui() {
-        this.scanner = new Scanner(System.in);
-    }
-
-    /**
-     * Reads a command from the user via standard input.
-     *
-     * @return the command string entered by the user
-     */
-    public String readCommand() {
-        return scanner.nextLine();
-    }
-
-    /**
-     * Displays a visual divider to format output.
-     */
-    public void showLine() {
-        System.out.println("---------------------------------");
-    }
+    private TaskList listedTasks;
+    private long listedVersion;
+    private String listing;
 
     /**
      * Displays welcome message to user when chatbot starts up.
@@ -48,16 +26,19 @@ public class Ui {
 
     /**
      * Displays goodbye message to user when user exits application.
-     * Closes scanner to free up resources.
+     * Lets the user interface start closing.
      */
     public String goodbyeUser() {
-        scanner.close();
-        PauseTransition delay = new PauseTransition(Duration.seconds(1.5));
-        delay.setOnFinished(event -> Platform.exit());
-        delay.play();
+        onExit();
         return "Bye. Hope to see you again soon!";
     }
 
+    /**
+     * Called when the user says bye. Does nothing here, as each user interface closes in its own way.
+     */
+    protected void onExit() {
+    }
+
     /**
      * Displays message indicating that task has been marked complete.
      *
@@ -106,13 +87,54 @@ public class Ui {
     }
 
     /**
-     * Displays all tasks in the task list with their corresponding numbers.
+     * Displays a message confirming how many tasks were removed from the task list at once.
+     * @param removedCount the number of tasks removed
+     * @param listOfTasks the current task list containing all the tasks
+     */
+    public String deleteTasks(int removedCount, TaskList listOfTasks) {
+        return "Noted. I've removed " + removedCount + " tasks.\n"
+            + "Now you have " + listOfTasks.size() + " tasks in the list.";
+    }
+
+    /**
+     * Displays a message confirming how many tasks were marked or unmarked at once.
+     * @param changedCount the number of tasks whose status changed
+     * @param unchangedCount the number of selected tasks that already had that status
+     * @param isDone whether the tasks were marked as done rather than undone
+     */
+    public String markTasks(int changedCount, int unchangedCount, boolean isDone) {
+        String status = isDone ? "done" : "undone";
+        String response = "Nice! I've marked " + changedCount + " tasks as " + status + ".";
+        if (unchangedCount > 0) {
+            response += "\n" + unchangedCount + " more were already " + status + ".";
+        }
+        return response;
+    }
+
+    /**
+     * Displays all tasks in the task list with their corresponding numbers, followed by their IDs.
+     * The listing is kept, and shown again as it is until the list changes.
      * @param listOfTasks the current task list containing all the tasks
      */
     public String listTasks(TaskList listOfTasks) {
+        if (listOfTasks != listedTasks || listOfTasks.getVersion() != listedVersion) {
+            listing = renderTasks(listOfTasks);
+            listedTasks = listOfTasks;
+            listedVersion = listOfTasks.getVersion();
+        }
+        return listing;
+    }
+
+    private String renderTasks(TaskList listOfTasks) {
         StringBuilder stringBuilder = new StringBuilder();
-        for (int i = 0; i < listOfTasks.size(); i++) {
-            stringBuilder.append((i + 1)).append(". ").append(listOfTasks.getTask(i)).append("\n");
+        int number = 0;
+        // iterating steps over deleted tasks as it goes, where looking each task up by number would search for it
+        for (Task task : listOfTasks) {
+            stringBuilder.append(++number).append(". ").append(task);
+            if (task.getKey() >= 0) {
+                stringBuilder.append(" (#").append(task.getKey()).append(')');
+            }
+            stringBuilder.append("\n");
         }
         return stringBuilder.toString();
     }
@@ -122,7 +144,59 @@ public class Ui {
      * @param listOfTasks the current task list containing all the tasks
      */
     public String findTasks(TaskList listOfTasks) {
-        return "Here are the matching tasks in your list:\n" + this.listTasks(listOfTasks);
+        return "Here are the matching tasks in your list:\n" + this.renderTasks(listOfTasks);
+    }
+
+    /**
+     * Displays the tasks most similar to the user query, best match first.
+     * @param listOfTasks the matching tasks, ranked
+     */
+    public String findSimilarTasks(TaskList listOfTasks) {
+        return "Here are the closest matching tasks in your list:\n" + this.renderTasks(listOfTasks);
+    }
+
+    /**
+     * Displays the deadlines falling due in the period the user asked about, earliest first.
+     * @param listOfTasks the deadlines due in that period
+     */
+    public String listDueTasks(TaskList listOfTasks) {
+        return "Here are the deadlines due in that period:\n" + this.renderTasks(listOfTasks);
+    }
+
+    /**
+     * Displays the events taking place at the time the user asked about.
+     * @param listOfTasks the events on at that time
+     */
+    public String listBusyEvents(TaskList listOfTasks) {
+        if (listOfTasks.isEmpty()) {
+            return "Nothing is on at that time!";
+        }
+        return "Here is what is on at that time:\n" + this.renderTasks(listOfTasks);
+    }
+
+    /**
+     * Displays the free periods between events in the period the user asked about.
+     * @param freePeriods the start and end times of each free period
+     */
+    public String listFreePeriods(ArrayList<LocalDateTime[]> freePeriods) {
+        if (freePeriods.isEmpty()) {
+            return "You have no free time in that period!";
+        }
+        StringBuilder stringBuilder = new StringBuilder("You are free during:\n");
+        for (int i = 0; i < freePeriods.size(); i++) {
+            stringBuilder.append((i + 1)).append(". ");
+            TimestampCodec.appendTo(stringBuilder, freePeriods.get(i)[0]).append(" to ");
+            TimestampCodec.appendTo(stringBuilder, freePeriods.get(i)[1]).append("\n");
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Displays a warning that a newly added event overlaps with existing ones.
+     * @param listOfTasks the existing events that overlap the new one
+     */
+    public String warnEventConflicts(TaskList listOfTasks) {
+        return "\nHeads up! This event overlaps with:\n" + this.renderTasks(listOfTasks);
     }
 
     /**
@@ -0,0 +1,16 @@
+package gigachad;
+
+import java.nio.file.Path;
+
+/**
+ * A front end that gigachad talks to the user through, such as a console or a window.
+ * Launcher picks one when the application starts, so only the one in use is ever loaded.
+ */
+public interface UserInterface {
+    /**
+     * Talks to the user until they say bye.
+     *
+     * @param filePath the path to the file where tasks are stored
+     */
+    void run(Path filePath);
+}
@@ -0,0 +1,291 @@
+package gigachad;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import gigachad.task.Task;
+
+/**
+ * Journaled Storage that takes disk I/O off the command path.
+ * Recorded mutations are queued in memory, coalesced per task, and written to the journal in groups
+ * by a background thread, either on a short timer or once enough mutations are queued.
+ * How hard each group is pushed to disk is chosen with a {@link Durability} level.
+ * Close it once done with it, to write out what is still queued and stop its thread.
+ * Storages left open are flushed by a single shutdown hook when the process exits.
+ */
+public class WriteBehindStorage extends Storage implements AutoCloseable {
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 20;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    /**
+     * How durable a recorded mutation is once it has been written out.
+     */
+    public enum Durability {
+        /** Every command is written and synced to the storage device before it returns. */
+        PER_COMMAND,
+        /** Queued mutations are written in groups, with one sync per group. */
+        GROUP,
+        /** Queued mutations are written in groups and left to the operating system to sync. */
+        OS_BUFFERED,
+        /**
+         * Queued mutations are only written, with one sync, when {@link #flush()} is called.
+         * Meant for running scripts, which flush at their own checkpoints.
+         */
+        CHECKPOINT
+    }
+
+    /** Every storage not yet closed, for the shutdown hook to flush. */
+    private static final Set<WriteBehindStorage> OPEN_STORAGES = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> OPEN_STORAGES.forEach(WriteBehindStorage::flush),
+                "storage-shutdown-flush"));
+    }
+
+    private final Durability durability;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+    private LinkedHashMap<String, TaskJournal.Entry> pending = new LinkedHashMap<>();
+
+    /**
+     * Constructs a WriteBehindStorage with the default flush interval and batch size.
+     *
+     * @param filePath the path to the file where tasks will be stored
+     * @param durability how durable each written group of mutations should be
+     */
+    public WriteBehindStorage(Path filePath, Durability durability) {
+        this(filePath, durability, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a WriteBehindStorage.
+     *
+     * @param filePath the path to the file where tasks will be stored
+     * @param durability how durable each written group of mutations should be
+     * @param flushIntervalMillis how often queued mutations are written out, in milliseconds
+     * @param maxBatchSize how many queued mutations trigger a write before the timer fires
+     */
+    public WriteBehindStorage(Path filePath, Durability durability, long flushIntervalMillis, int maxBatchSize) {
+        super(filePath, true);
+        assert flushIntervalMillis > 0 && maxBatchSize > 0 : "Flush interval and batch size must be positive";
+        this.durability = durability;
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "storage-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (durability != Durability.CHECKPOINT) {
+            flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        OPEN_STORAGES.add(this);
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    @Override
+    public void recordAdd(TaskList taskList, Task task) {
+        assignKey(task);
+        enqueue("A" + task.getKey(), TaskJournal.ADD, task.getKey(), task.saveFormat());
+    }
+
+    @Override
+    public void recordMark(TaskList taskList, Task task) {
+        assignKey(task);
+        enqueue("S" + task.getKey(), TaskJournal.MARK, task.getKey(), null);
+    }
+
+    @Override
+    public void recordUnmark(TaskList taskList, Task task) {
+        assignKey(task);
+        enqueue("S" + task.getKey(), TaskJournal.UNMARK, task.getKey(), null);
+    }
+
+    @Override
+    public void recordDelete(TaskList taskList, Task task) {
+        if (task.getKey() < 0) {
+            return;
+        }
+        int queued;
+        synchronized (this) {
+            putDelete(task.getKey());
+            queued = pending.size();
+        }
+        afterEnqueue(queued);
+    }
+
+    @Override
+    public void recordMarks(TaskList taskList, List<Task> tasks, boolean isDone) {
+        int queued;
+        synchronized (this) {
+            for (Task task : tasks) {
+                assignKey(task);
+                put("S" + task.getKey(), isDone ? TaskJournal.MARK : TaskJournal.UNMARK, task.getKey(), null);
+            }
+            queued = pending.size();
+        }
+        afterEnqueue(queued);
+    }
+
+    @Override
+    public void recordDeletes(TaskList taskList, List<Task> tasks) {
+        int queued;
+        synchronized (this) {
+            for (Task task : tasks) {
+                if (task.getKey() >= 0) {
+                    putDelete(task.getKey());
+                }
+            }
+            queued = pending.size();
+        }
+        afterEnqueue(queued);
+    }
+
+    @Override
+    public void recordAll(TaskList taskList, List<TaskJournal.Entry> entries) {
+        int queued;
+        synchronized (this) {
+            for (TaskJournal.Entry entry : entries) {
+                long key = entry.key();
+                switch (entry.type()) {
+                case TaskJournal.ADD -> put("A" + key, entry.type(), key, entry.saveFormat());
+                case TaskJournal.MARK, TaskJournal.UNMARK -> put("S" + key, entry.type(), key, null);
+                case TaskJournal.DELETE -> putDelete(key);
+                default -> {
+                    assert false : entry.type();
+                }
+                }
+            }
+            queued = pending.size();
+        }
+        afterEnqueue(queued);
+    }
+
+    /**
+     * Queues a journal record, replacing any queued record for the same task and slot.
+     * A replaced record moves to the back of the queue, which keeps replay order correct
+     * because records for different tasks only depend on each other through their ADD order.
+     */
+    private void enqueue(String slot, String type, long key, String saveFormat) {
+        int queued;
+        synchronized (this) {
+            put(slot, type, key, saveFormat);
+            queued = pending.size();
+        }
+        afterEnqueue(queued);
+    }
+
+    private void put(String slot, String type, long key, String saveFormat) {
+        assert Thread.holdsLock(this);
+        pending.remove(slot);
+        pending.put(slot, new TaskJournal.Entry(type, key, saveFormat));
+    }
+
+    /**
+     * Queues the deletion of a task, dropping its queued mark or unmark, or its queued add together with the
+     * deletion if the task never reached the journal.
+     */
+    private void putDelete(long key) {
+        assert Thread.holdsLock(this);
+        pending.remove("S" + key);
+        if (pending.remove("A" + key) == null) {
+            put("D" + key, TaskJournal.DELETE, key, null);
+        }
+    }
+
+    /**
+     * Writes the queue out now or soon, depending on the durability level and how much is queued.
+     */
+    private void afterEnqueue(int queued) {
+        if (durability == Durability.PER_COMMAND) {
+            flush();
+        } else if (durability != Durability.CHECKPOINT && queued >= maxBatchSize) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * Blocks until every queued mutation has been written to the journal at the chosen durability level.
+     * Called as a barrier before exiting so that nothing queued is lost.
+     */
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            LinkedHashMap<String, TaskJournal.Entry> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            try {
+                for (TaskJournal.Entry entry : batch.values()) {
+                    journal.append(entry);
+                }
+                if (durability == Durability.OS_BUFFERED) {
+                    journal.flush();
+                } else {
+                    journal.sync();
+                }
+                compactor.maybeCompact();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes out every queued mutation, then stops the flusher and compaction threads and closes the journal.
+     * The shutdown hook forgets this storage, and nothing recorded afterwards is written.
+     */
+    @Override
+    public void close() {
+        OPEN_STORAGES.remove(this);
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        compactor.close();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a full snapshot after flushing any queued mutations, so that the snapshot and journal stay in step.
+     *
+     * @param taskList the TaskList containing tasks to be saved to storage
+     */
+    @Override
+    public void saveToStorage(TaskList taskList) {
+        synchronized (flushLock) {
+            flush();
+            super.saveToStorage(taskList);
+        }
+    }
+
+    /**
+     * Returns how many mutations are queued and not yet written to the journal.
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+}
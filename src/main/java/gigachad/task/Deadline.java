@@ -1,7 +1,6 @@
 package gigachad.task;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Creates Task that has a deadline to be completed by and whether it is completed or not..
@@ -22,20 +21,28 @@ public class Deadline extends Task {
         this.by = by;
     }
 
+    public LocalDateTime getBy() {
+        return this.by;
+    }
+
     /**
-     * Saves the task in the correct format to be stored in the storage file.
+     * Renders the task in the format stored in the storage file.
      * @return task String in the form:
      * "D | (1 or 0) | (task description) | (formatted time string)"
      */
     @Override
-    public String saveFormat() {
-        String formattedBy = by.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-        return "D | " + this.getNumericIsDone() + " | " + this.description + " | " + formattedBy;
+    protected String renderSaveFormat() {
+        String text = this.getDescription();
+        StringBuilder saved = new StringBuilder(text.length() + 24)
+                .append("D | ").append(this.getNumericIsDone()).append(" | ").append(text).append(" | ");
+        return TimestampCodec.appendTo(saved, by).toString();
     }
 
     @Override
-    public String toString() {
-        String formattedBy = by.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-        return "[D]" + super.toString() + " (by: " + formattedBy + ")";
+    protected String render() {
+        String task = super.render();
+        StringBuilder shown = new StringBuilder(task.length() + 28).append("[D]").append(task)
+                .append(" (by: ");
+        return TimestampCodec.appendTo(shown, by).append(')').toString();
     }
 }
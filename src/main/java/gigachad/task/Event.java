@@ -1,7 +1,6 @@
 package gigachad.task;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Creates Task that has a start datetime and end datetime and whether it is completed or not.
@@ -25,25 +24,34 @@ public class Event extends Task {
         this.to = to;
     }
 
+    public LocalDateTime getFrom() {
+        return this.from;
+    }
+
+    public LocalDateTime getTo() {
+        return this.to;
+    }
+
     /**
-     * Saves the task in the correct format to be stored in the storage file.
+     * Renders the task in the format stored in the storage file.
      * @return task String in the form:
      * "E | (1 or 0) | (task description) | (formatted start time string) - (formatted end time string)"
      */
     @Override
-    public String saveFormat() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
-        String formattedFrom = from.format(formatter);
-        String formattedTo = to.format(formatter);
-        return "E | " + this.getNumericIsDone() + " | " + this.description + " | " + formattedFrom
-                + " - " + formattedTo;
+    protected String renderSaveFormat() {
+        String text = this.getDescription();
+        StringBuilder saved = new StringBuilder(text.length() + 42)
+                .append("E | ").append(this.getNumericIsDone()).append(" | ").append(text).append(" | ");
+        TimestampCodec.appendTo(saved, from).append(" - ");
+        return TimestampCodec.appendTo(saved, to).toString();
     }
 
     @Override
-    public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
-        String formattedFrom = from.format(formatter);
-        String formattedTo = to.format(formatter);
-        return "[E]" + super.toString() + " (from: " + formattedFrom + " to: " + formattedTo + ")";
+    protected String render() {
+        String task = super.render();
+        StringBuilder shown = new StringBuilder(task.length() + 48).append("[E]").append(task)
+                .append(" (from: ");
+        TimestampCodec.appendTo(shown, from).append(" to: ");
+        return TimestampCodec.appendTo(shown, to).append(')').toString();
     }
 }
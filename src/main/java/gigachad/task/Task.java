@@ -3,10 +3,14 @@ package gigachad.task;
 /**
  * Creates Task contains a task description and whether it is completed or not.
  * Task can be marked as complete or incomplete.
+ * The strings a task is shown and saved as are rendered once and reused, until the task is marked or unmarked.
  */
 public class Task {
     protected String description;
     protected boolean isDone;
+    protected long key;
+    private String shown;
+    private String saved;
 
     /**
      * Task constructor
@@ -16,16 +20,21 @@ public class Task {
         assert description != null && !description.isBlank() : "Deadline description must not be null/blank";
         this.description = description;
         this.isDone = false;
+        this.key = -1;
     }
 
     public String getStatusIcon() {
-        return (isDone ? "X" : " "); // mark done task with X
+        return (getIsDone() ? "X" : " "); // mark done task with X
     }
 
     public int getNumericIsDone() {
-        return isDone ? 1 : 0;
+        return getIsDone() ? 1 : 0;
     }
 
+    /**
+     * Returns the description of the task. Rendering reads it through here, so a task that keeps its description
+     * elsewhere only has to override this.
+     */
     public String getDescription() {
         return this.description;
     }
@@ -34,12 +43,24 @@ public class Task {
         return this.isDone;
     }
 
+    /**
+     * Returns the stable key used by the storage journal to refer to this task, or -1 if none is assigned yet.
+     */
+    public long getKey() {
+        return this.key;
+    }
+
+    public void setKey(long key) {
+        this.key = key;
+    }
+
     /**
      * Mark a task as complete
      */
     public void markAsDone() {
         if (!isDone) {
             isDone = true;
+            forgetRendering();
         }
     }
 
@@ -49,20 +70,68 @@ public class Task {
     public void unmark() {
         if (isDone) {
             isDone = false;
+            forgetRendering();
         }
     }
 
+    /**
+     * Drops the strings kept from rendering the task, so that they are rendered again the next time.
+     */
+    protected void forgetRendering() {
+        shown = null;
+        saved = null;
+    }
+
+    /**
+     * Returns whether the strings this task renders to can be kept and reused.
+     * Tasks whose status is kept elsewhere, and may change without going through this task, should not keep them.
+     */
+    protected boolean isRenderingKept() {
+        return true;
+    }
+
     /**
      * Saves the task in the correct format to be stored in the storage file.
+     * The string is rendered by {@link #renderSaveFormat()} and kept until the task is marked or unmarked.
+     */
+    public String saveFormat() {
+        if (!isRenderingKept()) {
+            return renderSaveFormat();
+        }
+        if (saved == null) {
+            saved = renderSaveFormat();
+        }
+        return saved;
+    }
+
+    /**
+     * Renders the task in the format stored in the storage file.
      * @return task String in the form:
      * "T | (1 or 0) | (task description)"
      */
-    public String saveFormat() {
-        return "T | " + this.getNumericIsDone() + " | " + this.description;
+    protected String renderSaveFormat() {
+        return "T | " + this.getNumericIsDone() + " | " + this.getDescription();
     }
 
+    /**
+     * Returns the task as shown to the user.
+     * The string is rendered by {@link #render()} and kept until the task is marked or unmarked.
+     */
     @Override
     public String toString() {
-        return String.format("[%s] %s", this.getStatusIcon(), this.description);
+        if (!isRenderingKept()) {
+            return render();
+        }
+        if (shown == null) {
+            shown = render();
+        }
+        return shown;
+    }
+
+    /**
+     * Renders the task as shown to the user, in the form "[(X or space)] (task description)".
+     */
+    protected String render() {
+        return "[" + this.getStatusIcon() + "] " + this.getDescription();
     }
 }
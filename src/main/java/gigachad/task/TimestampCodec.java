@@ -0,0 +1,192 @@
+package gigachad.task;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats and parses the fixed {@code yyyy-MM-dd HHmm} layout used for every date in the save file,
+ * in commands and on screen.
+ * Formatting writes digits straight into a caller-supplied buffer, and parsing reads them straight out of
+ * the text and checks each field, so neither builds a formatter, and malformed input is rejected without
+ * throwing. Parsing resolves fields as {@link #FORMATTER} does, including its lenient days such as 30 February.
+ * Only years beyond 4 digits are handed to the formatter, so results always match it exactly.
+ */
+public final class TimestampCodec {
+    public static final String PATTERN = "yyyy-MM-dd HHmm";
+    public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+    /** The number of characters in a formatted timestamp. */
+    public static final int LENGTH = PATTERN.length();
+    private static final int DATE_LENGTH = 10;
+
+    private TimestampCodec() {
+    }
+
+    /**
+     * Appends the given date and time to the buffer in the {@code yyyy-MM-dd HHmm} layout.
+     *
+     * @param buffer the buffer to append to
+     * @param dateTime the date and time to format
+     * @return the buffer, for chaining
+     */
+    public static StringBuilder appendTo(StringBuilder buffer, LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 1 || year > 9999) {
+            return buffer.append(dateTime.format(FORMATTER));
+        }
+        appendDigits(buffer, year, 4);
+        buffer.append('-');
+        appendDigits(buffer, dateTime.getMonthValue(), 2);
+        buffer.append('-');
+        appendDigits(buffer, dateTime.getDayOfMonth(), 2);
+        buffer.append(' ');
+        appendDigits(buffer, dateTime.getHour(), 2);
+        appendDigits(buffer, dateTime.getMinute(), 2);
+        return buffer;
+    }
+
+    private static void appendDigits(StringBuilder buffer, int value, int width) {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            buffer.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Returns the given date and time in the {@code yyyy-MM-dd HHmm} layout.
+     */
+    public static String format(LocalDateTime dateTime) {
+        return appendTo(new StringBuilder(LENGTH), dateTime).toString();
+    }
+
+    /**
+     * Parses a {@code yyyy-MM-dd HHmm} timestamp from part of the given text.
+     * Fields are checked and resolved directly, the way {@link #FORMATTER} resolves them, so malformed input
+     * is rejected without an exception being thrown. Only years beyond four digits, which the formatter
+     * writes with a leading '+', are handed to the formatter.
+     *
+     * @param text the text to read
+     * @param start the index of the first character of the timestamp
+     * @param end the index after its last character
+     * @return the date and time, or null if the text is not a valid timestamp
+     */
+    public static LocalDateTime parse(CharSequence text, int start, int end) {
+        if (end - start == LENGTH) {
+            if (text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-' || text.charAt(start + 10) != ' ') {
+                return null;
+            }
+            return resolve(digits(text, start, 4), digits(text, start + 5, 2), digits(text, start + 8, 2),
+                    digits(text, start + 11, 2), digits(text, start + 13, 2));
+        }
+        if (end - start > LENGTH + 1 && text.charAt(start) == '+') {
+            try {
+                return LocalDateTime.parse(text.subSequence(start, end), FORMATTER);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a whole {@code yyyy-MM-dd HHmm} timestamp.
+     *
+     * @return the date and time, or null if the text is not a valid timestamp
+     */
+    public static LocalDateTime parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses a {@code yyyy-MM-dd HHmm} timestamp from ASCII bytes, accepting only the plain layout.
+     * Callers fall back to {@link #parse(CharSequence)} on the decoded text when this returns null.
+     *
+     * @param bytes the bytes to read
+     * @param start the index of the first byte of the timestamp; {@link #LENGTH} bytes must follow
+     * @return the date and time, or null if the bytes are not a plain, valid timestamp
+     */
+    public static LocalDateTime parseStrict(byte[] bytes, int start) {
+        if (bytes[start + 4] != '-' || bytes[start + 7] != '-' || bytes[start + 10] != ' ') {
+            return null;
+        }
+        return resolve(digits(bytes, start, 4), digits(bytes, start + 5, 2), digits(bytes, start + 8, 2),
+                digits(bytes, start + 11, 2), digits(bytes, start + 13, 2));
+    }
+
+    /**
+     * Parses an ISO {@code yyyy-MM-dd} date from part of the given text, as {@link LocalDate#parse} would.
+     * Years of four digits, with or without a minus sign, are checked directly; only longer years,
+     * which must be signed, are handed to {@link LocalDate#parse}.
+     *
+     * @return the date, or null if the text is not a valid date
+     */
+    public static LocalDate parseDate(CharSequence text, int start, int end) {
+        boolean isNegative = end - start == DATE_LENGTH + 1 && text.charAt(start) == '-';
+        int yearStart = isNegative ? start + 1 : start;
+        if (end - yearStart == DATE_LENGTH) {
+            if (text.charAt(yearStart + 4) != '-' || text.charAt(yearStart + 7) != '-') {
+                return null;
+            }
+            int year = digits(text, yearStart, 4);
+            int month = digits(text, yearStart + 5, 2);
+            int day = digits(text, yearStart + 8, 2);
+            if (year < 0 || isNegative && year == 0 || month < 1 || month > 12 || day < 1
+                    || day > Month.of(month).length(Year.isLeap(isNegative ? -year : year))) {
+                return null;
+            }
+            return LocalDate.of(isNegative ? -year : year, month, day);
+        }
+        char sign = end - start > DATE_LENGTH + 1 ? text.charAt(start) : ' ';
+        if (sign == '+' || sign == '-') {
+            try {
+                return LocalDate.parse(text.subSequence(start, end));
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the fields of a timestamp the way {@link #FORMATTER} does, or returns null if any is out of range.
+     * As with the formatter, a day past the end of its month becomes the month's last day, so 30 February is
+     * 28 or 29 February, and 2400 is midnight at the start of the next day.
+     */
+    private static LocalDateTime resolve(int year, int month, int day, int hour, int minute) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 24
+                || minute < 0 || minute > 59 || hour == 24 && minute != 0) {
+            return null;
+        }
+        LocalDate date = LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+        return hour == 24 ? date.plusDays(1).atStartOfDay() : date.atTime(hour, minute);
+    }
+
+    /**
+     * Reads a run of decimal digits, or returns -1 if any character is not a digit.
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int digits(byte[] bytes, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            byte b = bytes[i];
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,117 @@
+package seedu.gigachad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gigachad.ChatLog;
+import gigachad.ChatMessage;
+
+/**
+ * Unit tests for {@link ChatLog}.
+ */
+public class ChatLogTest {
+    @TempDir
+    File tempDir;
+
+    private static List<ChatMessage> conversation(int count) {
+        ArrayList<ChatMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(new ChatMessage(i % 2 == 0, i % 2 == 0 ? "todo task " + i : "Got it. caf\u00e9 \u2713 " + i));
+        }
+        return messages;
+    }
+
+    /**
+     * Verifies that paging backwards from the end of a reopened log returns every message once, in order.
+     */
+    @Test
+    public void readBefore_pagesFromEnd_wholeConversationInOrder() throws IOException {
+        Path logPath = tempDir.toPath().resolve("chat.log");
+        List<ChatMessage> messages = conversation(25);
+        try (ChatLog log = new ChatLog(logPath)) {
+            for (ChatMessage message : messages) {
+                log.append(message);
+            }
+        }
+
+        try (ChatLog log = new ChatLog(logPath)) {
+            ChatLog.Page page = log.readLatest(10);
+            assertEquals(messages.subList(15, 25), page.messages());
+            ArrayList<ChatMessage> read = new ArrayList<>(page.messages());
+            while (page.hasOlder()) {
+                page = log.readBefore(page.start(), 10);
+                read.addAll(0, page.messages());
+            }
+            assertEquals(messages, read);
+            assertEquals(5, page.messages().size());
+        }
+    }
+
+    /**
+     * Verifies that paging forwards from the start of an older page returns the newer messages, in order,
+     * and stops at the end of the log.
+     */
+    @Test
+    public void readAfter_pagesTowardsEnd_wholeConversationInOrder() throws IOException {
+        Path logPath = tempDir.toPath().resolve("chat.log");
+        List<ChatMessage> messages = conversation(25);
+        try (ChatLog log = new ChatLog(logPath)) {
+            for (ChatMessage message : messages) {
+                log.append(message);
+            }
+
+            ChatLog.Page oldest = log.readBefore(log.readBefore(log.size(), 20).start(), 10);
+            assertEquals(messages.subList(0, 5), oldest.messages());
+            ArrayList<ChatMessage> read = new ArrayList<>(oldest.messages());
+            ChatLog.Page page = oldest;
+            while (page.end() < log.size()) {
+                page = log.readAfter(page.end(), 10);
+                read.addAll(page.messages());
+            }
+            assertEquals(messages, read);
+            assertEquals(List.of(), log.readAfter(log.size(), 10).messages());
+        }
+    }
+
+    /**
+     * Verifies that a message cut short by a crash is dropped, and that the log carries on after it.
+     */
+    @Test
+    public void open_tornLastMessage_droppedAndLogStillAppends() throws IOException {
+        Path logPath = tempDir.toPath().resolve("chat.log");
+        List<ChatMessage> messages = conversation(3);
+        long intactSize;
+        try (ChatLog log = new ChatLog(logPath)) {
+            for (ChatMessage message : messages) {
+                log.append(message);
+            }
+            intactSize = log.size();
+            log.append(new ChatMessage(true, "todo never finished"));
+        }
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(intactSize + 7);
+        }
+
+        try (ChatLog log = new ChatLog(logPath)) {
+            assertEquals(intactSize, log.size());
+            log.append(new ChatMessage(false, "Bye. Hope to see you again soon!"));
+            ChatLog.Page page = log.readLatest(10);
+            assertFalse(page.hasOlder());
+            assertEquals(4, page.messages().size());
+            assertEquals(messages, page.messages().subList(0, 3));
+            assertTrue(page.messages().get(3).text().startsWith("Bye."));
+        }
+    }
+}
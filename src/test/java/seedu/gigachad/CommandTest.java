@@ -2,6 +2,8 @@ package seedu.gigachad;
 
 import static java.nio.file.Files.readString;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -9,17 +11,24 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import gigachad.Command;
+import gigachad.Parser;
 import gigachad.Storage;
 import gigachad.TaskList;
 import gigachad.Ui;
 import gigachad.exception.GigachadException;
+import gigachad.task.Deadline;
+import gigachad.task.Event;
 import gigachad.task.Task;
+import gigachad.task.ToDo;
 
 /**
  * Unit tests for the {@link Command} class.
@@ -80,12 +89,12 @@ public class CommandTest {
      * Verifies that executing a "list" command on an empty task list throws a {@link GigachadException}.
      */
     @Test
-    public void execute_listEmptyList_exceptionThrown() {
+    public void execute_listEmptyList_exceptionThrown() throws GigachadException {
         StorageStub storageStub = new StorageStub(Paths.get("data/tasks.txt"));
         TaskListStub taskListStub = new TaskListStub();
         UiStub uiStub = new UiStub();
 
-        Command command = new Command("list", "list", new String[] {});
+        Command command = Parser.parse("list");
 
         GigachadException thrown = assertThrows(
                 GigachadException.class,
@@ -107,17 +116,13 @@ public class CommandTest {
         TaskListStub taskListStub = new TaskListStub();
         UiStub uiStub = new UiStub();
 
-        Command commandTodo = new Command("todo", "todo borrow book",
-                new String[] { "todo", "borrow", "book" });
+        Command commandTodo = Parser.parse("todo borrow book");
         commandTodo.execute(taskListStub, uiStub, storageStub);
 
-        Command commandDeadline = new Command("deadline", "deadline return book /by 2025-09-09 1900",
-                new String[] { "deadline", "return", "book", "2025-09-09", "1900" });
+        Command commandDeadline = Parser.parse("deadline return book /by 2025-09-09 1900");
         commandDeadline.execute(taskListStub, uiStub, storageStub);
 
-        Command commandEvent = new Command("event",
-                "event project meeting /from 2025-10-10 1000 /to 2025-11-10 1000",
-                new String[] { "event", "project", "meeting", "2025-10-10", "1000", "2025-11-10", "1000" });
+        Command commandEvent = Parser.parse("event project meeting /from 2025-10-10 1000 /to 2025-11-10 1000");
         commandEvent.execute(taskListStub, uiStub, storageStub);
 
         String content = readString(filePath);
@@ -133,12 +138,12 @@ public class CommandTest {
      * Verifies that a "todo" command with no description throws a {@link GigachadException}.
      */
     @Test
-    public void execute_todoMissingDescription_exceptionThrown() {
+    public void execute_todoMissingDescription_exceptionThrown() throws GigachadException {
         StorageStub storageStub = new StorageStub(Paths.get("data/tasks.txt"));
         TaskListStub taskListStub = new TaskListStub();
         UiStub uiStub = new UiStub();
 
-        Command command = new Command("todo", "todo", new String[] { "todo" });
+        Command command = Parser.parse("todo");
         assertThrows(GigachadException.class, () ->
                 command.execute(taskListStub, uiStub, storageStub));
     }
@@ -147,13 +152,12 @@ public class CommandTest {
      * Verifies that a "deadline" command with an invalid date format throws a {@link GigachadException}.
      */
     @Test
-    public void execute_deadlineInvalidDate_exceptionThrown() {
+    public void execute_deadlineInvalidDate_exceptionThrown() throws GigachadException {
         StorageStub storageStub = new StorageStub(Paths.get("data/tasks.txt"));
         TaskListStub taskListStub = new TaskListStub();
         UiStub uiStub = new UiStub();
 
-        Command command = new Command("deadline", "deadline task /by not-a-date",
-                new String[] { "deadline", "task", "not-a-date" });
+        Command command = Parser.parse("deadline task /by not-a-date");
 
         assertThrows(GigachadException.class, () ->
                 command.execute(taskListStub, uiStub, storageStub));
@@ -163,13 +167,12 @@ public class CommandTest {
      * Verifies that an "event" command missing required fields throws a {@link GigachadException}.
      */
     @Test
-    public void execute_eventMissingFields_exceptionThrown() {
+    public void execute_eventMissingFields_exceptionThrown() throws GigachadException {
         StorageStub storageStub = new StorageStub(Paths.get("data/tasks.txt"));
         TaskListStub taskListStub = new TaskListStub();
         UiStub uiStub = new UiStub();
 
-        Command command = new Command("event", "event something /from onlyStart",
-                new String[] { "event", "something", "onlyStart" });
+        Command command = Parser.parse("event something /from onlyStart");
 
         assertThrows(GigachadException.class, () ->
                 command.execute(taskListStub, uiStub, storageStub));
@@ -179,27 +182,311 @@ public class CommandTest {
      * Verifies that a "find" command with no keyword throws a {@link GigachadException}.
      */
     @Test
-    public void execute_findWithNoKeyword_exceptionThrown() {
+    public void execute_findWithNoKeyword_exceptionThrown() throws GigachadException {
         StorageStub storageStub = new StorageStub(Paths.get("data/tasks.txt"));
         TaskListStub taskListStub = new TaskListStub();
         UiStub uiStub = new UiStub();
 
-        Command command = new Command("find", "find", new String[] { "find" });
+        Command command = Parser.parse("find");
 
         assertThrows(GigachadException.class, () ->
                 command.execute(taskListStub, uiStub, storageStub));
     }
 
+    /**
+     * Verifies that "find" matches every keyword and quoted phrase, in list order, and stays correct after a delete.
+     */
+    @Test
+    public void execute_findKeywordsAndPhrase_matchesInListOrder() throws GigachadException {
+        StorageStub storageStub = new StorageStub(tempDir.toPath().resolve("tasks.txt"));
+        TaskList taskList = new TaskList();
+        UiStub uiStub = new UiStub();
+        taskList.addTask(new ToDo("borrow book"));
+        taskList.addTask(new ToDo("project meeting notes"));
+        taskList.addTask(new ToDo("return Book to library"));
+        taskList.addTask(new ToDo("meeting about the project"));
+
+        assertEquals(List.of("borrow book", "return Book to library"), descriptions(taskList.findTasks("book")));
+        assertEquals(List.of("project meeting notes", "meeting about the project"),
+                descriptions(taskList.findTasks("meeting project")));
+        assertEquals(List.of("project meeting notes"), descriptions(taskList.findTasks("\"project meeting\"")));
+        assertTrue(taskList.findTasks("meet").isEmpty());
+
+        Parser.parse("delete 1").execute(taskList, uiStub, storageStub);
+        taskList.addTask(new ToDo("book flights"));
+        assertEquals(List.of("return Book to library", "book flights"), descriptions(taskList.findTasks("book")));
+
+        String result = Parser.parse("find library book").execute(taskList, uiStub, storageStub);
+        assertTrue(result.contains("return Book to library"));
+        assertFalse(result.contains("book flights"));
+    }
+
+    /**
+     * Verifies that "find~" ranks substring matches first, tolerates typos, honours the result limit
+     * and forgets deleted tasks.
+     */
+    @Test
+    public void execute_fuzzyFind_ranksSimilarTasks() throws GigachadException {
+        StorageStub storageStub = new StorageStub(tempDir.toPath().resolve("tasks.txt"));
+        TaskList taskList = new TaskList();
+        UiStub uiStub = new UiStub();
+        taskList.addTask(new ToDo("buy groceries"));
+        taskList.addTask(new ToDo("project meeting notes"));
+        taskList.addTask(new ToDo("meet supervisor"));
+        taskList.addTask(new ToDo("team meeting"));
+
+        assertEquals(List.of("meet supervisor", "team meeting", "project meeting notes"),
+                descriptions(taskList.findSimilarTasks("meet", 10)));
+        assertEquals(List.of("team meeting"), descriptions(taskList.findSimilarTasks("team meetnig", 1)));
+        assertEquals(List.of("buy groceries"), descriptions(taskList.findSimilarTasks("grocries", 10)));
+
+        Parser.parse("delete 2").execute(taskList, uiStub, storageStub);
+        String result = Parser.parse("find~ meeting /top 1").execute(taskList, uiStub, storageStub);
+        assertTrue(result.contains("team meeting"));
+        assertFalse(result.contains("project"));
+
+        assertThrows(GigachadException.class, () -> Parser.parse("find~ meeting /top x")
+                .execute(taskList, uiStub, storageStub));
+    }
+
+    /**
+     * Verifies that "due" returns deadlines in a date range, earliest first, and that the pending-only view
+     * follows mark, unmark and delete.
+     */
+    @Test
+    public void execute_dueRange_followsMarkUnmarkAndDelete() throws GigachadException {
+        StorageStub storageStub = new StorageStub(tempDir.toPath().resolve("tasks.txt"));
+        TaskList taskList = new TaskList();
+        UiStub uiStub = new UiStub();
+        taskList.addTask(new Deadline("essay", LocalDateTime.of(2025, 10, 20, 23, 59)));
+        taskList.addTask(new ToDo("read book"));
+        taskList.addTask(new Deadline("lab report", LocalDateTime.of(2025, 10, 5, 12, 0)));
+        taskList.addTask(new Deadline("tax return", LocalDateTime.of(2025, 11, 30, 9, 0)));
+
+        LocalDateTime start = LocalDateTime.of(2025, 10, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 10, 31, 23, 59);
+        assertEquals(List.of("lab report", "essay"), descriptions(taskList.findDueTasks(start, end, false)));
+
+        Parser.parse("mark 3").execute(taskList, uiStub, storageStub);
+        assertEquals(List.of("essay"), descriptions(taskList.findDueTasks(start, end, true)));
+        assertEquals(List.of("lab report", "essay"), descriptions(taskList.findDueTasks(start, end, false)));
+
+        Parser.parse("unmark 3").execute(taskList, uiStub, storageStub);
+        Parser.parse("delete 1").execute(taskList, uiStub, storageStub);
+        assertEquals(List.of("lab report"), descriptions(taskList.findDueTasks(start, end, true)));
+
+        String result = Parser.parse("due 2025-10-05 1200 /pending").execute(taskList, uiStub, storageStub);
+        assertTrue(result.contains("lab report"));
+        assertFalse(result.contains("tax return"));
+
+        result = Parser.parse("due 2025-10-06 2025-11-30").execute(taskList, uiStub, storageStub);
+        assertTrue(result.contains("tax return"));
+        assertFalse(result.contains("lab report"));
+
+        assertThrows(GigachadException.class, () -> Parser.parse("due tomorrow")
+                .execute(taskList, uiStub, storageStub));
+    }
+
+    /**
+     * Verifies "busy", "free" and the overlap warning when adding an event.
+     */
+    @Test
+    public void execute_busyFreeAndEventConflicts_success() throws GigachadException {
+        StorageStub storageStub = new StorageStub(tempDir.toPath().resolve("tasks.txt"));
+        TaskList taskList = new TaskList();
+        UiStub uiStub = new UiStub();
+        taskList.addTask(new Event("lecture", LocalDateTime.of(2025, 10, 10, 10, 0),
+                LocalDateTime.of(2025, 10, 10, 12, 0)));
+        taskList.addTask(new Event("lunch", LocalDateTime.of(2025, 10, 10, 12, 0),
+                LocalDateTime.of(2025, 10, 10, 13, 0)));
+
+        String result = Parser.parse("busy 2025-10-10 1200").execute(taskList, uiStub, storageStub);
+        assertTrue(result.contains("lunch"));
+        assertFalse(result.contains("lecture"));
+
+        result = Parser.parse("free 2025-10-10 0900 2025-10-10 1800").execute(taskList, uiStub, storageStub);
+        assertTrue(result.contains("2025-10-10 0900 to 2025-10-10 1000"));
+        assertTrue(result.contains("2025-10-10 1300 to 2025-10-10 1800"));
+        assertFalse(result.contains("1200 to"));
+
+        String rawInput = "event meeting /from 2025-10-10 1130 /to 2025-10-10 1230";
+        result = Parser.parse(rawInput).execute(taskList, uiStub, storageStub);
+        assertTrue(result.contains("overlaps"));
+        assertTrue(result.contains("lecture") && result.contains("lunch"));
+
+        rawInput = "event dinner /from 2025-10-10 1800 /to 2025-10-10 1900";
+        result = Parser.parse(rawInput).execute(taskList, uiStub, storageStub);
+        assertFalse(result.contains("overlaps"));
+
+        Parser.parse("delete 1").execute(taskList, uiStub, storageStub);
+        assertEquals(List.of("meeting"), descriptions(taskList.findEventsAt(LocalDateTime.of(2025, 10, 10, 11, 45))));
+    }
+
+    /**
+     * Verifies that overlap queries on the event interval tree agree with a scan over many random events,
+     * including after deletes.
+     */
+    @Test
+    public void findOverlappingEvents_randomEvents_sameAsScan() {
+        Random random = new Random(42);
+        TaskList taskList = new TaskList();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime from = base.plusMinutes(random.nextInt(100_000));
+            taskList.addTask(new Event("event " + i, from, from.plusMinutes(random.nextInt(600))));
+        }
+        taskList.findOverlappingEvents(base, base);
+        for (int i = 0; i < 500; i++) {
+            taskList.deleteTask(random.nextInt(taskList.size()));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = base.plusMinutes(random.nextInt(100_000));
+            LocalDateTime to = from.plusMinutes(1 + random.nextInt(300));
+            List<Task> expected = taskList.allTasks().stream()
+                    .filter(task -> {
+                        Event event = (Event) task;
+                        LocalDateTime end = event.getTo().isAfter(event.getFrom())
+                                ? event.getTo() : event.getFrom().plusMinutes(1);
+                        return event.getFrom().isBefore(to) && end.isAfter(from);
+                    })
+                    .toList();
+            List<Task> actual = taskList.findOverlappingEvents(from, to);
+            assertEquals(expected.size(), actual.size());
+            assertTrue(actual.containsAll(expected));
+        }
+    }
+
+    /**
+     * Verifies that parsed commands tolerate extra whitespace and any case in the command word,
+     * and that a non-numeric task number is reported instead of crashing.
+     */
+    @Test
+    public void parse_extraWhitespaceAndCase_executesCommand() throws GigachadException {
+        StorageStub storageStub = new StorageStub(tempDir.toPath().resolve("tasks.txt"));
+        TaskList taskList = new TaskList();
+        UiStub uiStub = new UiStub();
+
+        Parser.parse("  DEADLINE   return  book /by   2025-09-09 1900 ").execute(taskList, uiStub, storageStub);
+        Deadline deadline = (Deadline) taskList.getTask(0);
+        assertEquals("return  book", deadline.getDescription());
+        assertEquals(LocalDateTime.of(2025, 9, 9, 19, 0), deadline.getBy());
+
+        assertThrows(GigachadException.class, () -> Parser.parse("mark abc").execute(taskList, uiStub, storageStub));
+        assertThrows(GigachadException.class, () -> Parser.parse("   "));
+        assertTrue(Parser.parse("mark   1").execute(taskList, uiStub, storageStub).contains("marked"));
+    }
+
+    private static List<String> descriptions(List<Task> tasks) {
+        return tasks.stream().map(Task::getDescription).toList();
+    }
+
+    /**
+     * Verifies that tasks keep their IDs through deletes and reloads, and can be marked and deleted by ID.
+     */
+    @Test
+    public void execute_markAndDeleteById_idsStayStable() throws GigachadException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        Storage storage = new Storage(filePath);
+        TaskList taskList = new TaskList(storage.initStorage());
+        UiStub ui = new UiStub();
+        for (String command : List.of("todo a", "todo b", "todo c", "todo d", "delete 1", "mark #2", "delete #1")) {
+            Parser.parse(command).execute(taskList, ui, storage);
+        }
+
+        assertEquals("1. [T][X] c (#2)\n2. [T][ ] d (#3)\n", Parser.parse("list").execute(taskList, ui, storage));
+        assertThrows(GigachadException.class, () -> Parser.parse("mark #1").execute(taskList, ui, storage));
+        assertThrows(GigachadException.class, () -> Parser.parse("delete #x").execute(taskList, ui, storage));
+
+        Storage reloadedStorage = new Storage(filePath);
+        TaskList reloaded = new TaskList(reloadedStorage.initStorage());
+        Parser.parse("unmark #2").execute(reloaded, ui, reloadedStorage);
+        Parser.parse("todo e").execute(reloaded, ui, reloadedStorage);
+        assertEquals("1. [T][ ] c (#2)\n2. [T][ ] d (#3)\n3. [T][ ] e (#4)\n",
+                Parser.parse("list").execute(reloaded, ui, reloadedStorage));
+    }
+
+    /**
+     * Verifies that deleting by ID and by number in any mix leaves the same tasks as deleting from a plain list.
+     */
+    @Test
+    public void deleteTaskById_randomDeletes_sameAsArrayList() {
+        Random random = new Random(7);
+        TaskList taskList = new TaskList();
+        ArrayList<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            ToDo todo = new ToDo("task " + i);
+            todo.setKey(i);
+            taskList.addTask(todo);
+            expected.add(todo);
+        }
+        while (!expected.isEmpty()) {
+            if (random.nextInt(4) == 0) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), taskList.deleteTask(index));
+            } else {
+                Task target = expected.remove(random.nextInt(expected.size()));
+                assertEquals(target, taskList.getTaskById(target.getKey()));
+                assertEquals(target, taskList.deleteTaskById(target.getKey()));
+                assertEquals(null, taskList.getTaskById(target.getKey()));
+            }
+            assertEquals(expected.size(), taskList.size());
+            if (random.nextInt(50) == 0) {
+                assertEquals(expected, taskList.allTasks());
+            }
+        }
+    }
+
+    /**
+     * Verifies that ranges and predicates select the right tasks, and that each bulk command saves only once.
+     */
+    @Test
+    public void execute_bulkCommands_touchSelectedTasksWithOneSave() throws GigachadException, IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        int[] saves = {0};
+        Storage storage = new Storage(filePath) {
+            @Override
+            public void saveToStorage(TaskList listOfTasks) {
+                saves[0]++;
+                super.saveToStorage(listOfTasks);
+            }
+        };
+        TaskList taskList = new TaskList(storage.initStorage());
+        UiStub ui = new UiStub();
+        for (int i = 1; i <= 10; i++) {
+            Parser.parse("deadline d" + i + " /by 2025-10-" + (10 + i) + " 1200").execute(taskList, ui, storage);
+        }
+
+        saves[0] = 0;
+        assertEquals("Nice! I've marked 5 tasks as done.",
+                Parser.parse("mark 1, 3,5-7").execute(taskList, ui, storage));
+        assertEquals("Nice! I've marked 1 tasks as done.\n2 more were already done.",
+                Parser.parse("mark 6-8").execute(taskList, ui, storage));
+        assertEquals("Noted. I've removed 6 tasks.\nNow you have 4 tasks in the list.",
+                Parser.parse("delete done").execute(taskList, ui, storage));
+        assertEquals(3, saves[0]);
+        assertEquals("Noted. I've removed 2 tasks.\nNow you have 2 tasks in the list.",
+                Parser.parse("delete due-before 2025-10-19").execute(taskList, ui, storage));
+        assertEquals(List.of("d9", "d10"), taskList.allTasks().stream().map(Task::getDescription).toList());
+        assertEquals(List.of("D | 0 | d9 | 2025-10-19 1200", "D | 0 | d10 | 2025-10-20 1200"),
+                readString(filePath).lines().map(line -> line.substring(line.indexOf('|') + 2)).toList());
+
+        assertThrows(GigachadException.class, () -> Parser.parse("mark 1-3").execute(taskList, ui, storage));
+        assertThrows(GigachadException.class, () -> Parser.parse("mark 2-1").execute(taskList, ui, storage));
+        assertThrows(GigachadException.class, () -> Parser.parse("delete 1,,2").execute(taskList, ui, storage));
+        assertEquals(2, taskList.size());
+    }
+
     /**
      * Verifies that a "mark" command with an invalid task number throws a {@link GigachadException}.
      */
     @Test
-    public void execute_markInvalidTaskNumber_exceptionThrown() {
+    public void execute_markInvalidTaskNumber_exceptionThrown() throws GigachadException {
         StorageStub storageStub = new StorageStub(Paths.get("data/tasks.txt"));
         TaskListStub taskListStub = new TaskListStub();
         UiStub uiStub = new UiStub();
 
-        Command command = new Command("mark", "mark 5", new String[] { "mark", "5" });
+        Command command = Parser.parse("mark 5");
 
         assertThrows(GigachadException.class, () ->
                 command.execute(taskListStub, uiStub, storageStub));
@@ -214,7 +501,7 @@ public class CommandTest {
         TaskListStub taskListStub = new TaskListStub();
         UiStub uiStub = new UiStub();
 
-        Command command = new Command("help", "help", new String[] { "help" });
+        Command command = Parser.parse("help");
         String result = command.execute(taskListStub, uiStub, storageStub);
 
         assertTrue(result.contains("To add todos"));
@@ -230,9 +517,44 @@ public class CommandTest {
         TaskListStub taskListStub = new TaskListStub();
         UiStub uiStub = new UiStub();
 
-        Command command = new Command("nonsense", "nonsense", new String[] { "nonsense" });
+        Command command = Parser.parse("nonsense");
         String result = command.execute(taskListStub, uiStub, storageStub);
 
         assertTrue(result.toLowerCase().contains("invalid"));
     }
+
+    /**
+     * Verifies that a repeated list is shown from the kept listing, and that the listing and the kept strings
+     * of each task follow marks, unmarks, deletes and adds.
+     */
+    @Test
+    public void execute_listAfterChanges_showsCurrentTasks() throws GigachadException {
+        StorageStub storageStub = new StorageStub(tempDir.toPath().resolve("tasks.txt"));
+        TaskList taskList = new TaskList();
+        UiStub uiStub = new UiStub();
+        for (String command : List.of("todo read book", "deadline return book /by 2025-09-09 1900",
+                "event book fair /from 2025-09-10 1000 /to 2025-09-10 1800")) {
+            Parser.parse(command).execute(taskList, uiStub, storageStub);
+        }
+
+        String listed = Parser.parse("list").execute(taskList, uiStub, storageStub);
+        assertTrue(listed == Parser.parse("list").execute(taskList, uiStub, storageStub));
+        Task deadline = taskList.getTask(1);
+        assertEquals("D | 0 | return book | 2025-09-09 1900", deadline.saveFormat());
+
+        Parser.parse("mark 2").execute(taskList, uiStub, storageStub);
+        assertEquals("[D][X] return book (by: 2025-09-09 1900)", deadline.toString());
+        assertEquals("D | 1 | return book | 2025-09-09 1900", deadline.saveFormat());
+        assertTrue(Parser.parse("list").execute(taskList, uiStub, storageStub).contains("2. [D][X] return book"));
+
+        Parser.parse("unmark 2").execute(taskList, uiStub, storageStub);
+        assertEquals(listed, Parser.parse("list").execute(taskList, uiStub, storageStub));
+
+        Parser.parse("delete 1").execute(taskList, uiStub, storageStub);
+        Parser.parse("todo write essay").execute(taskList, uiStub, storageStub);
+        assertEquals(List.of("1. [D][ ] return book (by: 2025-09-09 1900) (#1)",
+                "2. [E][ ] book fair (from: 2025-09-10 1000 to: 2025-09-10 1800) (#2)", "3. [T][ ] write essay (#3)"),
+                Parser.parse("list").execute(taskList, uiStub, storageStub).lines()
+                        .filter(line -> line.matches("\\d+\\..*")).toList());
+    }
 }
@@ -0,0 +1,266 @@
+package seedu.gigachad;
+
+import static java.nio.file.Files.readString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gigachad.CompactTaskList;
+import gigachad.Parser;
+import gigachad.Storage;
+import gigachad.TaskList;
+import gigachad.Ui;
+import gigachad.exception.GigachadException;
+import gigachad.task.Deadline;
+import gigachad.task.Event;
+import gigachad.task.Task;
+import gigachad.task.ToDo;
+
+/**
+ * Unit tests for {@link CompactTaskList}, checking that it behaves exactly like {@link TaskList}.
+ */
+public class CompactTaskListTest {
+    private static final List<String> COMMANDS = List.of(
+            "todo borrow book",
+            "deadline return book /by 2025-09-09 1900",
+            "event project meeting /from 2025-10-10 1000 /to 2025-10-10 1200",
+            "todo caf\u00e9 visit",
+            "find book",
+            "mark 2",
+            "due 2025-09-01 2025-09-30 /pending",
+            "unmark 2",
+            "due 2025-09-01 2025-09-30 /pending",
+            "event standup /from 2025-10-10 1100 /to 2025-10-10 1130",
+            "busy 2025-10-10 1115",
+            "free 2025-10-10 0900 2025-10-10 1300",
+            "find~ meetng",
+            "delete 1",
+            "find book",
+            "mark 3",
+            "mark #2",
+            "delete #3",
+            "todo after delete",
+            "unmark #2",
+            "delete 2",
+            "find~ delete",
+            "todo bulk one",
+            "todo bulk two",
+            "mark 1, 3-4",
+            "unmark 1-2",
+            "delete due-before 2025-12-01",
+            "delete done",
+            "find bulk",
+            "list");
+
+    @TempDir
+    File tempDir;
+
+    private static ArrayList<String> runCommands(TaskList taskList, Storage storage) throws GigachadException {
+        Ui ui = new Ui();
+        ArrayList<String> responses = new ArrayList<>();
+        for (String command : COMMANDS) {
+            responses.add(Parser.parse(command).execute(taskList, ui, storage));
+        }
+        return responses;
+    }
+
+    /**
+     * Verifies that the same commands give the same responses and save file with either list.
+     */
+    @Test
+    public void execute_sameCommands_sameResponsesAndSaveFile() throws GigachadException, IOException {
+        Path plainPath = tempDir.toPath().resolve("plain.txt");
+        Path compactPath = tempDir.toPath().resolve("compact.txt");
+        Path offHeapPath = tempDir.toPath().resolve("off-heap.txt");
+
+        ArrayList<String> expected = runCommands(new TaskList(), new Storage(plainPath));
+        ArrayList<String> compact = runCommands(new CompactTaskList(), new Storage(compactPath));
+        ArrayList<String> offHeap = runCommands(new CompactTaskList(true), new Storage(offHeapPath));
+
+        assertEquals(expected, compact);
+        assertEquals(expected, offHeap);
+        assertEquals(readString(plainPath), readString(compactPath));
+        assertEquals(readString(plainPath), readString(offHeapPath));
+    }
+
+    /**
+     * Verifies that journaled storage sees the keys it assigns to views, so the journal replays correctly.
+     */
+    @Test
+    public void execute_journaledStorage_replaysSameTasks() throws GigachadException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        Storage storage = new Storage(filePath, true);
+        CompactTaskList taskList = new CompactTaskList(storage.initStorage());
+        runCommands(taskList, storage);
+        storage.flush();
+
+        ArrayList<Task> replayed = new Storage(filePath, true).initStorage();
+        assertEquals(taskList.size(), replayed.size());
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals(taskList.getTask(i).saveFormat(), replayed.get(i).saveFormat());
+            assertEquals(taskList.getTask(i).getKey(), replayed.get(i).getKey());
+        }
+    }
+
+    /**
+     * Verifies that views write through to the list, and that views of one task are equal.
+     */
+    @Test
+    public void getTask_markView_visibleThroughNewView() {
+        CompactTaskList taskList = new CompactTaskList();
+        taskList.addTask(new ToDo("read"));
+
+        taskList.getTask(0).markAsDone();
+        taskList.getTask(0).setKey(7);
+
+        assertTrue(taskList.getTask(0).getIsDone());
+        assertEquals("[T][X] read", taskList.getTask(0).toString());
+        assertEquals(7, taskList.getTask(0).getKey());
+        assertEquals(taskList.getTask(0), taskList.getTask(0));
+    }
+
+    /**
+     * Verifies that deleting most tasks, which reclaims their slots, keeps order, done status and searches intact.
+     */
+    @Test
+    public void deleteTask_manyDeletes_sameAsTaskList() {
+        TaskList expected = new TaskList();
+        CompactTaskList actual = new CompactTaskList();
+        for (int i = 0; i < 5000; i++) {
+            ToDo todo = new ToDo("task " + i + (i % 3 == 0 ? " three" : ""));
+            if (i % 7 == 0) {
+                todo.markAsDone();
+            }
+            expected.addTask(todo);
+            actual.addTask(todo);
+        }
+        actual.findTasks("three");
+        for (int i = 0; i < 4000; i++) {
+            int index = (i * 31) % expected.size();
+            assertEquals(expected.deleteTask(index).toString(), actual.deleteTask(index).toString());
+        }
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getTask(i).toString(), actual.getTask(i).toString());
+        }
+        assertEquals(descriptions(expected.findTasks("three")), descriptions(actual.findTasks("three")));
+    }
+
+    /**
+     * Verifies that scanning the description arena finds the same tasks as the keyword index,
+     * including descriptions that are not plain ASCII and queries with phrases.
+     */
+    @Test
+    public void findTasks_randomDescriptions_sameAsKeywordIndex() {
+        String[] words = {"book", "Book", "read", "meeting", "caf\u00e9", "CAF\u00c9", "r\u00e9sum\u00e9", "2025",
+            "book-club", "re-read", "project"};
+        Random random = new Random(42);
+        TaskList expected = new TaskList();
+        CompactTaskList onHeap = new CompactTaskList();
+        CompactTaskList offHeap = new CompactTaskList(true);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder description = new StringBuilder();
+            int wordCount = 1 + random.nextInt(5);
+            for (int j = 0; j < wordCount; j++) {
+                description.append(j == 0 ? "" : random.nextBoolean() ? " " : ", ")
+                        .append(words[random.nextInt(words.length)]);
+            }
+            ToDo todo = new ToDo(description.toString());
+            expected.addTask(todo);
+            onHeap.addTask(todo);
+            offHeap.addTask(todo);
+        }
+        for (int i = 0; i < 1500; i += 3) {
+            expected.deleteTask(i % expected.size());
+            onHeap.deleteTask(i % onHeap.size());
+            offHeap.deleteTask(i % offHeap.size());
+        }
+
+        for (String query : List.of("book", "BOOK read", "caf\u00e9", "r\u00e9sum\u00e9 2025", "\"book club\"",
+                "re \"read book\"", "missing", "", "project-meeting")) {
+            List<String> expectedMatches = descriptions(expected.findTasks(query));
+            assertEquals(expectedMatches, descriptions(onHeap.findTasks(query)), query);
+            assertEquals(expectedMatches, descriptions(offHeap.findTasks(query)), query);
+        }
+    }
+
+    /**
+     * Verifies that the indexes of slots answer fuzzy, due and event queries like the indexes of tasks,
+     * while tasks are deleted and after enough are deleted to reclaim their slots.
+     */
+    @Test
+    public void findByTime_randomTasks_sameAsTaskIndexes() {
+        String[] words = {"book", "meeting", "caf\u00e9", "review", "project", "lunch"};
+        LocalDateTime start = LocalDateTime.of(2025, 10, 1, 0, 0);
+        Random random = new Random(7);
+        TaskList expected = new TaskList();
+        CompactTaskList actual = new CompactTaskList();
+        for (int i = 0; i < 3000; i++) {
+            String description = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            LocalDateTime from = start.plusMinutes(15L * random.nextInt(2000));
+            Task task = switch (i % 3) {
+            case 0 -> new Deadline(description, from);
+            case 1 -> new Event(description, from, from.plusMinutes(15L * random.nextInt(12)));
+            default -> new ToDo(description);
+            };
+            if (random.nextInt(4) == 0) {
+                task.markAsDone();
+            }
+            expected.addTask(task);
+            actual.addTask(task);
+        }
+
+        assertSameFinds(expected, actual, start);
+        for (int i = 0; i < 2000; i++) {
+            int index = (i * 17) % expected.size();
+            expected.deleteTask(index);
+            actual.deleteTask(index);
+            if (i == 500) {
+                assertSameFinds(expected, actual, start);
+            }
+        }
+        actual.addTask(new Event("late review", start.plusDays(3), start.plusDays(3).plusHours(2)));
+        expected.addTask(new Event("late review", start.plusDays(3), start.plusDays(3).plusHours(2)));
+        assertSameFinds(expected, actual, start);
+    }
+
+    private static void assertSameFinds(TaskList expected, CompactTaskList actual, LocalDateTime start) {
+        for (String query : List.of("book", "meetng", "caf\u00e9 lunch", "proj")) {
+            assertEquals(descriptions(expected.findSimilarTasks(query, 20)),
+                    descriptions(actual.findSimilarTasks(query, 20)), query);
+        }
+        for (int day = 0; day < 25; day += 4) {
+            LocalDateTime from = start.plusDays(day);
+            LocalDateTime to = from.plusHours(30);
+            assertEquals(descriptions(expected.findDueTasks(from, to, true)),
+                    descriptions(actual.findDueTasks(from, to, true)));
+            assertEquals(descriptions(expected.findDueTasks(from, to, false)),
+                    descriptions(actual.findDueTasks(from, to, false)));
+            assertEquals(descriptions(expected.findOverlappingEvents(from, to)),
+                    descriptions(actual.findOverlappingEvents(from, to)));
+            assertEquals(descriptions(expected.findEventsAt(from.plusMinutes(20))),
+                    descriptions(actual.findEventsAt(from.plusMinutes(20))));
+            assertEquals(periods(expected.findFreePeriods(from, from.plusHours(6))),
+                    periods(actual.findFreePeriods(from, from.plusHours(6))));
+        }
+    }
+
+    private static List<String> periods(List<LocalDateTime[]> periods) {
+        return periods.stream().map(period -> period[0] + " - " + period[1]).toList();
+    }
+
+    private static List<String> descriptions(List<Task> tasks) {
+        return tasks.stream().map(Task::toString).toList();
+    }
+}
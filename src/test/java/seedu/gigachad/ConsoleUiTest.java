@@ -0,0 +1,64 @@
+package seedu.gigachad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gigachad.ConsoleUi;
+import gigachad.Storage;
+import gigachad.task.Task;
+
+/**
+ * Unit tests for {@link ConsoleUi}.
+ */
+public class ConsoleUiTest {
+    @TempDir
+    File tempDir;
+
+    private static String run(Path filePath, String input) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ConsoleUi ui = new ConsoleUi(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+        ui.run(filePath);
+        return output.toString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+    }
+
+    /**
+     * Verifies that each response is printed, and that nothing after bye is run.
+     */
+    @Test
+    public void run_commandsThenBye_printsResponsesAndStops() {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+
+        String output = run(filePath, "todo borrow book\nmark 1\nbye\ntodo never added\n");
+
+        assertEquals(String.join("\n", "Hello! I'm gigachad!", " What can I do for you?",
+                "Got it. I've added this task:", "  [T][ ] borrow book", "Now you have 1 tasks in the list.",
+                "Nice! I've marked this task as done:", "[T][X] borrow book",
+                "Bye. Hope to see you again soon!", ""), output.substring(output.indexOf("Hello")));
+        assertEquals(List.of("[T][X] borrow book"),
+                new Storage(filePath, true).initStorage().stream().map(Task::toString).toList());
+    }
+
+    /**
+     * Verifies that running out of input ends the session as bye would, with every change saved.
+     */
+    @Test
+    public void run_inputEndsWithoutBye_savesAndReturns() {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+
+        run(filePath, "todo a\ntodo b\ndelete 1");
+
+        assertEquals(List.of("[T][ ] b"),
+                new Storage(filePath, true).initStorage().stream().map(Task::toString).toList());
+    }
+}
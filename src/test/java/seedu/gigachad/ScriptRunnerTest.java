@@ -0,0 +1,82 @@
+package seedu.gigachad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gigachad.ScriptRunner;
+import gigachad.Storage;
+import gigachad.TaskList;
+import gigachad.Ui;
+import gigachad.WriteBehindStorage;
+import gigachad.task.Task;
+import gigachad.task.ToDo;
+
+/**
+ * Unit tests for {@link ScriptRunner}.
+ */
+public class ScriptRunnerTest {
+    @TempDir
+    File tempDir;
+
+    /**
+     * Verifies that a script runs every command in order, reports failures by line and stops at bye in any case,
+     * and that its tasks are all on disk once it returns.
+     */
+    @Test
+    public void run_scriptWithErrors_runsEveryCommandAndCheckpoints() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        WriteBehindStorage storage = new WriteBehindStorage(filePath, WriteBehindStorage.Durability.CHECKPOINT);
+        TaskList taskList = new TaskList(storage.initStorage());
+        String script = String.join("\n", "todo read book", "", "deadline return book /by 2025-09-09 1900",
+                "mark 9", "todo write essay", "mark 1,3", "delete 2", "nonsense", "  BYE ", "todo never run");
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+
+        ScriptRunner runner = new ScriptRunner(taskList, new Ui(), storage, 2);
+        ScriptRunner.Summary summary = runner.run(new BufferedReader(new StringReader(script)),
+                new PrintStream(errors, true, StandardCharsets.UTF_8));
+
+        assertEquals(7, summary.commandCount());
+        assertEquals(1, summary.errorCount());
+        assertEquals(4, summary.checkpointCount());
+        assertEquals("Line 4: Invalid task number! You only have 2 tasks.\n",
+                errors.toString(StandardCharsets.UTF_8).replace("\r\n", "\n"));
+        assertEquals(0, storage.pendingCount());
+
+        ArrayList<Task> replayed = new Storage(filePath, true).initStorage();
+        assertEquals(List.of("[T][X] read book", "[T][X] write essay"),
+                replayed.stream().map(Task::toString).toList());
+        storage.close();
+    }
+
+    /**
+     * Verifies that a checkpointed storage leaves mutations queued until it is flushed.
+     */
+    @Test
+    public void recordAdd_checkpointDurability_waitsForFlush() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        WriteBehindStorage storage = new WriteBehindStorage(filePath, WriteBehindStorage.Durability.CHECKPOINT,
+                1, 1);
+        TaskList taskList = new TaskList(storage.initStorage());
+        new ScriptRunner(taskList, new Ui(), storage, 100)
+                .run(new BufferedReader(new StringReader("todo a")), System.out);
+        storage.recordAdd(taskList, new ToDo("b"));
+
+        assertEquals(1, storage.pendingCount());
+        storage.flush();
+        assertEquals(2, new Storage(filePath, true).initStorage().size());
+        storage.close();
+    }
+}
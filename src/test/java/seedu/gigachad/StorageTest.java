@@ -3,22 +3,35 @@ package seedu.gigachad;
 import static java.nio.file.Files.readString;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import gigachad.BinaryTaskFormat;
+import gigachad.JournalCompactor;
+import gigachad.SnapshotConverter;
 import gigachad.Storage;
 import gigachad.TaskList;
+import gigachad.WriteBehindStorage;
+import gigachad.task.Deadline;
+import gigachad.task.Event;
 import gigachad.task.Task;
+import gigachad.task.ToDo;
 
 /**
  * Unit tests for {@link gigachad.Storage}.
@@ -188,6 +201,38 @@ public class StorageTest {
         assertTrue(tasks.get(2).toString().contains("[E][X] conference"));
     }
 
+    /**
+     * Tests that {@link Storage#initStorage()} reports each stage of loading, and prints only the number of tasks
+     * when printing tasks is turned off.
+     */
+    @Test
+    public void initStorage_printingTasksOff_reportsStagesAndCountOnly() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        try (FileWriter writer = new FileWriter(filePath.toFile())) {
+            writer.write("T | 1 | read book\n");
+            writer.write("D | 0 | submit assignment | 2025-12-15 2359\n");
+        }
+        Storage storage = new Storage(filePath, true);
+        storage.setPrintingTasks(false);
+        ArrayList<String> stages = new ArrayList<>();
+        storage.setProgressListener(stages::add);
+
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        ArrayList<Task> tasks;
+        try {
+            tasks = storage.initStorage();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertEquals(2, tasks.size());
+        assertEquals(List.of("Reading 0 KB of tasks...", "Replaying changes to 2 tasks..."), stages);
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("You have 2 tasks."));
+        assertFalse(output.toString(StandardCharsets.UTF_8).contains("read book"));
+    }
+
     @Test
     public void initStorage_createsMissingParentDirectories() {
         Path filePath = tempDir.toPath().resolve("nested/folder/tasks.txt");
@@ -197,4 +242,217 @@ public class StorageTest {
         assertTrue(filePath.toFile().exists(), "File should be created even if parent directories are missing");
         assertTrue(tasks.isEmpty(), "Task list should be empty for a new file with missing parent directories");
     }
+
+    /**
+     * Tests that mutations recorded in journaled mode are replayed on top of a plain snapshot
+     * without rewriting the snapshot file.
+     */
+    @Test
+    public void initStorage_journaledMode_replaysJournalOnPlainSnapshot() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        try (FileWriter writer = new FileWriter(filePath.toFile())) {
+            writer.write("T | 0 | read book\n");
+            writer.write("T | 0 | write essay\n");
+        }
+
+        Storage storage = new Storage(filePath, true);
+        TaskList taskList = new TaskList(storage.initStorage());
+        ToDo added = new ToDo("buy milk");
+        taskList.addTask(added);
+        storage.recordAdd(taskList, added);
+        Task first = taskList.getTask(0);
+        first.markAsDone();
+        storage.recordMark(taskList, first);
+        storage.recordDelete(taskList, taskList.deleteTask(1));
+
+        assertEquals("T | 0 | read book\nT | 0 | write essay\n", readString(filePath));
+
+        ArrayList<Task> reloaded = new Storage(filePath, true).initStorage();
+        assertEquals(2, reloaded.size());
+        assertEquals("[T][X] read book", reloaded.get(0).toString());
+        assertEquals("[T][ ] buy milk", reloaded.get(1).toString());
+    }
+
+    /**
+     * Tests that a journal record cut short by a crash is dropped rather than replayed,
+     * and that records journaled afterwards start on a line of their own.
+     */
+    @Test
+    public void initStorage_tornLastJournalRecord_droppedAndJournalStillAppends() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        Path journalPath = tempDir.toPath().resolve("tasks.txt.journal");
+        Storage storage = new Storage(filePath, true);
+        TaskList taskList = new TaskList(storage.initStorage());
+        for (String description : new String[] {"a", "b"}) {
+            ToDo todo = new ToDo(description);
+            taskList.addTask(todo);
+            storage.recordAdd(taskList, todo);
+        }
+        long intactSize = journalPath.toFile().length();
+        try (FileWriter writer = new FileWriter(journalPath.toFile(), StandardCharsets.UTF_8, true)) {
+            writer.write("MARK | 1");
+        }
+
+        Storage reopened = new Storage(filePath, true);
+        TaskList reloaded = new TaskList(reopened.initStorage());
+        assertEquals(intactSize, journalPath.toFile().length());
+        assertEquals("[T][ ] b", reloaded.getTask(1).toString());
+        ToDo second = new ToDo("second");
+        reloaded.addTask(second);
+        reopened.recordAdd(reloaded, second);
+
+        ArrayList<Task> tasks = new Storage(filePath, true).initStorage();
+        assertEquals(3, tasks.size());
+        assertEquals("[T][ ] a", tasks.get(0).toString());
+        assertEquals("[T][ ] b", tasks.get(1).toString());
+        assertEquals("[T][ ] second", tasks.get(2).toString());
+    }
+
+    /**
+     * Tests that saving a snapshot in journaled mode truncates the journal and keeps the task keys,
+     * so that journal records written afterwards still replay correctly.
+     */
+    @Test
+    public void saveToStorage_journaledMode_truncatesJournal() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        Path journalPath = tempDir.toPath().resolve("tasks.txt.journal");
+
+        Storage storage = new Storage(filePath, true);
+        TaskList taskList = new TaskList(storage.initStorage());
+        for (String description : new String[] {"a", "b", "c"}) {
+            ToDo todo = new ToDo(description);
+            taskList.addTask(todo);
+            storage.recordAdd(taskList, todo);
+        }
+        storage.recordDelete(taskList, taskList.deleteTask(0));
+        storage.saveToStorage(taskList);
+        assertFalse(journalPath.toFile().exists(), "Journal should be truncated after a snapshot");
+
+        Task last = taskList.getTask(1);
+        last.markAsDone();
+        storage.recordMark(taskList, last);
+
+        ArrayList<Task> reloaded = new Storage(filePath, true).initStorage();
+        assertEquals(2, reloaded.size());
+        assertEquals("[T][ ] b", reloaded.get(0).toString());
+        assertEquals("[T][X] c", reloaded.get(1).toString());
+    }
+
+    /**
+     * Tests that the background compactor folds the journal into the snapshot once it passes its threshold,
+     * while later mutations keep being journaled.
+     */
+    @Test
+    public void recordAdd_journalPastThreshold_compactsIntoSnapshot() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        Storage storage = new Storage(filePath, true);
+        JournalCompactor compactor = storage.getCompactor();
+        compactor.setThresholds(Long.MAX_VALUE, 3);
+        TaskList taskList = new TaskList(storage.initStorage());
+
+        for (String description : new String[] {"a", "b", "c", "d"}) {
+            ToDo todo = new ToDo(description);
+            taskList.addTask(todo);
+            storage.recordAdd(taskList, todo);
+        }
+        compactor.awaitCompaction();
+
+        assertNotNull(compactor.getLastReport(), "Compaction should report its duration and reclaimed bytes");
+        String snapshot = readString(filePath);
+        assertTrue(snapshot.contains("T | 0 | c"));
+        assertFalse(snapshot.contains("T | 0 | d"), "Records after the rotation should stay in the journal");
+
+        ArrayList<Task> reloaded = new Storage(filePath, true).initStorage();
+        assertEquals(4, reloaded.size());
+        assertEquals("[T][ ] d", reloaded.get(3).toString());
+    }
+
+    /**
+     * Tests that write-behind storage queues and coalesces mutations until the flush barrier,
+     * after which they replay like directly journaled mutations.
+     */
+    @Test
+    public void flush_writeBehindStorage_persistsCoalescedMutations() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        WriteBehindStorage storage = new WriteBehindStorage(filePath,
+                WriteBehindStorage.Durability.GROUP, 60_000, 1_000);
+        TaskList taskList = new TaskList(storage.initStorage());
+
+        for (String description : new String[] {"a", "b", "c"}) {
+            ToDo todo = new ToDo(description);
+            taskList.addTask(todo);
+            storage.recordAdd(taskList, todo);
+        }
+        Task first = taskList.getTask(0);
+        first.markAsDone();
+        storage.recordMark(taskList, first);
+        first.unmark();
+        storage.recordUnmark(taskList, first);
+        first.markAsDone();
+        storage.recordMark(taskList, first);
+        storage.recordDelete(taskList, taskList.deleteTask(1));
+
+        assertEquals(3, storage.pendingCount(), "Should coalesce to two adds and one mark");
+        storage.flush();
+        assertEquals(0, storage.pendingCount());
+
+        ArrayList<Task> reloaded = new Storage(filePath, true).initStorage();
+        assertEquals(2, reloaded.size());
+        assertEquals("[T][X] a", reloaded.get(0).toString());
+        assertEquals("[T][ ] c", reloaded.get(1).toString());
+
+        ToDo last = new ToDo("d");
+        taskList.addTask(last);
+        storage.recordAdd(taskList, last);
+        storage.close();
+        assertEquals(3, new Storage(filePath, true).initStorage().size(), "Closing should write queued mutations");
+    }
+
+    /**
+     * Tests that binary snapshots are detected from their header and load back the same tasks.
+     */
+    @Test
+    public void saveToStorage_binarySnapshot_roundTrips() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        ArrayList<Task> tasksToSave = new ArrayList<>();
+        tasksToSave.add(new ToDo("read book"));
+        tasksToSave.add(new Deadline("submit assignment", LocalDateTime.of(2025, 12, 15, 23, 59)));
+        Event event = new Event("conference",
+                LocalDateTime.of(2025, 9, 9, 18, 0),
+                LocalDateTime.of(2025, 9, 9, 20, 30));
+        event.markAsDone();
+        tasksToSave.add(event);
+
+        Storage storage = new Storage(filePath);
+        storage.setBinarySnapshot(true);
+        storage.saveToStorage(new TaskList(tasksToSave));
+        assertTrue(BinaryTaskFormat.isBinary(filePath));
+
+        Storage reloadingStorage = new Storage(filePath);
+        ArrayList<Task> reloaded = reloadingStorage.initStorage();
+        assertTrue(reloadingStorage.isBinarySnapshot(), "Binary format should be detected from the header");
+        assertEquals(3, reloaded.size());
+        for (int i = 0; i < tasksToSave.size(); i++) {
+            assertEquals(tasksToSave.get(i).saveFormat(), reloaded.get(i).saveFormat());
+        }
+    }
+
+    /**
+     * Tests that converting a text snapshot to binary and back keeps every task and key.
+     */
+    @Test
+    public void snapshotConverter_textToBinaryAndBack_preservesTasks() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        String content = "3 | T | 1 | read book\n"
+                + "8 | D | 0 | submit assignment | 2025-12-15 2359\n"
+                + "9 | E | 1 | conference | 2025-09-09 1800 - 2025-09-09 2030\n";
+        try (FileWriter writer = new FileWriter(filePath.toFile())) {
+            writer.write(content);
+        }
+
+        assertEquals(3, SnapshotConverter.toBinary(filePath, filePath));
+        assertTrue(BinaryTaskFormat.isBinary(filePath));
+        assertEquals(3, SnapshotConverter.toText(filePath, filePath));
+        assertEquals(content, readString(filePath));
+    }
 }
@@ -0,0 +1,149 @@
+package seedu.gigachad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gigachad.TaskFileReader;
+import gigachad.task.Task;
+
+/**
+ * Unit tests for {@link TaskFileReader}.
+ * Checks that the streaming reader loads the same tasks, and reports the same corrupted lines,
+ * as the original Scanner-based reader.
+ */
+public class TaskFileReaderTest {
+    @TempDir
+    File tempDir;
+
+    private static ArrayList<String> describe(ArrayList<Task> tasks) {
+        ArrayList<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.getKey() + " " + task);
+        }
+        return descriptions;
+    }
+
+    private static String readCapturingOutput(Path filePath, boolean isStreaming, ArrayList<Task> tasks)
+            throws IOException {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            if (isStreaming) {
+                TaskFileReader.read(filePath, tasks);
+            } else {
+                TaskFileReader.readWithScanner(filePath, tasks);
+            }
+        } finally {
+            System.setOut(originalOut);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private void assertSameAsScanner(String content) throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        Files.writeString(filePath, content, StandardCharsets.UTF_8);
+
+        ArrayList<Task> expected = new ArrayList<>();
+        String expectedOutput = readCapturingOutput(filePath, false, expected);
+        ArrayList<Task> actual = new ArrayList<>();
+        String actualOutput = readCapturingOutput(filePath, true, actual);
+
+        assertEquals(describe(expected), describe(actual));
+        assertEquals(expectedOutput, actualOutput);
+    }
+
+    @Test
+    public void read_wellFormedLines_sameAsScanner() throws IOException {
+        assertSameAsScanner("T | 1 | read book\n"
+                + "D | 0 | submit assignment | 2025-12-15 2359\n"
+                + "E | 1 | conference | 2025-09-09 1800 - 2025-09-09 2030\n"
+                + "7 | T | 0 | keyed todo\r\n"
+                + "12 | D | 1 | keyed deadline | 2024-02-29 0000\n"
+                + "\n\n");
+    }
+
+    @Test
+    public void read_corruptedLines_sameAsScanner() throws IOException {
+        assertSameAsScanner("T | 0 | too | many\n"
+                + "D | 0 | missing date\n"
+                + "E | 0 | no range | 2025-09-09 1800\n"
+                + "E | 0 | empty range |  - 2025-09-09 1800\n"
+                + "D | 0 | lenient day | 2025-02-30 1200\n"
+                + "D | 0 | end of day | 2025-02-28 2400\n"
+                + "T | 01 | padded flag\n"
+                + "T | 2 | unknown flag\n"
+                + "T | 1 | last line without newline");
+    }
+
+    @Test
+    public void read_malformedKeys_reportedAndSkipped() throws IOException {
+        String content = "12x | T | 0 | bad key\n"
+                + "123\n"
+                + "99999999999999999999 | T | 0 | key too large\n"
+                + "4 | T | 0 | kept\n";
+        assertSameAsScanner(content);
+
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        ArrayList<Task> tasks = new ArrayList<>();
+        String output = readCapturingOutput(filePath, true, tasks);
+        assertEquals(1, tasks.size());
+        assertEquals("4 [T][ ] kept", describe(tasks).get(0));
+        assertEquals(3, output.split("Invalid format! Corrupted file!", -1).length - 1);
+    }
+
+    @Test
+    public void read_lineLongerThanBuffer_sameAsScanner() throws IOException {
+        assertSameAsScanner("T | 0 | short\n"
+                + "T | 1 | " + "x".repeat(200_000) + "\n"
+                + "T | 0 | after\n");
+    }
+
+    @Test
+    public void readParallel_manySmallChunks_sameAsSequential() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            switch (i % 4) {
+            case 0 -> content.append("T | ").append(i % 2).append(" | todo ").append(i);
+            case 1 -> content.append("D | 1 | deadline ").append(i).append(" | 2025-12-15 2359");
+            case 2 -> content.append("E | 0 | event ").append(i).append(" | 2025-09-09 1800 - 2025-09-09 2030");
+            default -> content.append(i).append(" | T | 0 | keyed ").append(i);
+            }
+            content.append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+        Files.writeString(filePath, content.toString(), StandardCharsets.UTF_8);
+
+        ArrayList<Task> sequential = new ArrayList<>();
+        TaskFileReader.readSequential(filePath, sequential);
+        for (int chunkSize : new int[] {1, 37, 1_000, 1 << 20}) {
+            ArrayList<Task> parallel = new ArrayList<>();
+            TaskFileReader.readParallel(filePath, parallel, chunkSize);
+            assertEquals(describe(sequential), describe(parallel), "Chunk size " + chunkSize);
+        }
+        assertEquals(5_000, sequential.size());
+    }
+
+    @Test
+    public void readParallel_blankLinesAtChunkEnd_sameAsSequential() throws IOException {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        Files.writeString(filePath, "T | 0 | first\nT | 1 | second\n\n   \n", StandardCharsets.UTF_8);
+
+        ArrayList<Task> sequential = new ArrayList<>();
+        TaskFileReader.readSequential(filePath, sequential);
+        ArrayList<Task> parallel = new ArrayList<>();
+        TaskFileReader.readParallel(filePath, parallel, 8);
+        assertEquals(describe(sequential), describe(parallel));
+    }
+}
@@ -0,0 +1,52 @@
+package seedu.gigachad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import gigachad.TaskList;
+import gigachad.task.Task;
+import gigachad.task.ToDo;
+
+/**
+ * Unit tests for {@link TaskList}.
+ */
+public class TaskListTest {
+    /**
+     * Verifies that tasks are found by position and by ID across the tombstones that deletes leave,
+     * however deletes by position, deletes by ID and adds are interleaved.
+     */
+    @Test
+    public void getTask_interleavedDeletesAndAdds_sameAsPlainList() {
+        Random random = new Random(3);
+        TaskList taskList = new TaskList();
+        ArrayList<Task> expected = new ArrayList<>();
+        long nextKey = 0;
+        for (int step = 0; step < 20_000; step++) {
+            int choice = expected.isEmpty() ? 0 : random.nextInt(5);
+            if (choice <= 1) {
+                ToDo todo = new ToDo("task " + nextKey);
+                todo.setKey(nextKey++);
+                taskList.addTask(todo);
+                expected.add(todo);
+            } else if (choice == 2) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), taskList.deleteTask(index));
+            } else if (choice == 3) {
+                Task removed = expected.remove(random.nextInt(expected.size()));
+                assertEquals(removed, taskList.deleteTaskById(removed.getKey()));
+                assertNull(taskList.getTaskById(removed.getKey()));
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.get(index), taskList.getTask(index));
+                assertEquals(expected.get(index), taskList.getTaskById(expected.get(index).getKey()));
+            }
+            assertEquals(expected.size(), taskList.size());
+        }
+        assertEquals(expected, taskList.allTasks());
+    }
+}
@@ -0,0 +1,102 @@
+package seedu.gigachad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import gigachad.task.TimestampCodec;
+
+/**
+ * Checks that {@link TimestampCodec} agrees with the {@code yyyy-MM-dd HHmm} formatter it replaces.
+ */
+public class TimestampCodecTest {
+    @Test
+    public void format_randomDateTimes_sameAsFormatter() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = LocalDateTime.of(1 + random.nextInt(9999), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60));
+            String expected = dateTime.format(TimestampCodec.FORMATTER);
+            assertEquals(expected, TimestampCodec.format(dateTime));
+            assertEquals(dateTime, TimestampCodec.parse(expected));
+        }
+        LocalDateTime farFuture = LocalDateTime.of(12345, 6, 7, 8, 9);
+        assertEquals(farFuture.format(TimestampCodec.FORMATTER), TimestampCodec.format(farFuture));
+    }
+
+    @Test
+    public void parse_unusualInputs_sameAsFormatter() {
+        String[] inputs = {
+            "2025-02-30 1200", "2024-02-29 0000", "2025-02-29 2359", "2025-04-31 1000", "2025-04-32 1000",
+            "2025-13-01 1000", "2025-01-01 2400", "2025-01-01 1260", "0000-01-01 1000", "2025-1-01 1000",
+            "2025-01-01 100", "2025/01/01 1000", "2025-01-01T1000", "12025-01-01 1000", "", "not a date",
+            "2025-02-30 2400", "2025-12-31 2400", "9999-12-31 2400", "2025-01-01 2401", "+12025-01-01 1000",
+            "+2025-01-01 1000", "-0001-01-01 1000", "2025-01-01 -100", "tomorrow", "2025-02-31 1200 ",
+        };
+        for (String input : inputs) {
+            LocalDateTime expected;
+            try {
+                expected = LocalDateTime.parse(input, TimestampCodec.FORMATTER);
+            } catch (DateTimeParseException e) {
+                expected = null;
+            }
+            assertEquals(expected, TimestampCodec.parse(input), input);
+        }
+    }
+
+    @Test
+    public void parse_randomText_sameAsFormatter() {
+        Random random = new Random(11);
+        String alphabet = "0123456789-+ x";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder input = new StringBuilder("2025-02-28 2359");
+            for (int edits = random.nextInt(3); edits >= 0; edits--) {
+                int position = random.nextInt(input.length());
+                char c = alphabet.charAt(random.nextInt(alphabet.length()));
+                switch (random.nextInt(3)) {
+                case 0 -> input.setCharAt(position, c);
+                case 1 -> input.insert(position, c);
+                default -> input.deleteCharAt(position);
+                }
+            }
+            LocalDateTime expected;
+            try {
+                expected = LocalDateTime.parse(input, TimestampCodec.FORMATTER);
+            } catch (DateTimeParseException e) {
+                expected = null;
+            }
+            assertEquals(expected, TimestampCodec.parse(input), input.toString());
+        }
+    }
+
+    @Test
+    public void parseDate_unusualInputs_sameAsLocalDate() {
+        String[] inputs = {
+            "2025-10-10", "2024-02-29", "2025-02-29", "2025-02-30", "2025-13-01", "2025-00-10", "0000-01-01",
+            "-0004-02-29", "-0001-02-29", "-0000-01-01", "+2025-01-01", "+12025-01-01", "-12025-01-01",
+            "12025-01-01", "2025-1-01", "2025/10/10", "tomorrow", "",
+        };
+        for (String input : inputs) {
+            LocalDate expected;
+            try {
+                expected = LocalDate.parse(input);
+            } catch (DateTimeParseException e) {
+                expected = null;
+            }
+            assertEquals(expected, TimestampCodec.parseDate(input, 0, input.length()), input);
+        }
+    }
+
+    @Test
+    public void parseDate_isoDates_sameAsLocalDate() {
+        assertEquals(LocalDate.of(2025, 10, 10), TimestampCodec.parseDate("due 2025-10-10", 4, 14));
+        assertNull(TimestampCodec.parseDate("2025-02-30", 0, 10));
+        assertNull(TimestampCodec.parseDate("tomorrow", 0, 8));
+    }
+}
@@ -0,0 +1,165 @@
+package seedu.gigachad;
+
+import static java.nio.file.Files.readString;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gigachad.CompactTaskList;
+import gigachad.Parser;
+import gigachad.Storage;
+import gigachad.TaskList;
+import gigachad.Transaction;
+import gigachad.Ui;
+import gigachad.WriteBehindStorage;
+import gigachad.exception.GigachadException;
+import gigachad.task.Task;
+
+/**
+ * Unit tests for {@link Transaction}.
+ */
+public class TransactionTest {
+    @TempDir
+    File tempDir;
+
+    /**
+     * Storage that counts how many times it rewrites the tasks file.
+     */
+    static class CountingStorage extends Storage {
+        private int saveCount = 0;
+
+        CountingStorage(Path filePath) {
+            super(filePath);
+        }
+
+        @Override
+        public void saveToStorage(TaskList listOfTasks) {
+            saveCount++;
+            super.saveToStorage(listOfTasks);
+        }
+    }
+
+    private static List<String> render(TaskList taskList) {
+        ArrayList<String> tasks = new ArrayList<>();
+        for (Task task : taskList) {
+            tasks.add(task + " #" + task.getKey());
+        }
+        return tasks;
+    }
+
+    /**
+     * Verifies that every command on the line runs in order, and that the tasks file is written once.
+     */
+    @Test
+    public void execute_validLine_runsAllAndSavesOnce() throws Exception {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        CountingStorage storage = new CountingStorage(filePath);
+        TaskList taskList = new TaskList(storage.initStorage());
+
+        String response = Transaction.parse("todo a; todo b ;mark 1; deadline c /by 2025-09-09 1900")
+                .execute(taskList, new Ui(), storage);
+
+        assertEquals(4, response.lines()
+                .filter(line -> line.startsWith("Got it") || line.startsWith("Nice")).count());
+        assertEquals(List.of("[T][X] a #0", "[T][ ] b #1", "[D][ ] c (by: 2025-09-09 1900) #2"), render(taskList));
+        assertEquals(1, storage.saveCount);
+        assertEquals(3, readString(filePath).lines().count());
+    }
+
+    /**
+     * Verifies that a failing command rolls back every earlier command on the line, in either kind of list,
+     * and that nothing is written.
+     */
+    @Test
+    public void execute_failingCommand_rollsBackEverything() throws Exception {
+        for (boolean isCompact : new boolean[] {false, true}) {
+            Path filePath = tempDir.toPath().resolve(isCompact + ".txt");
+            CountingStorage storage = new CountingStorage(filePath);
+            ArrayList<Task> loadedTasks = storage.initStorage();
+            TaskList taskList = isCompact ? new CompactTaskList(loadedTasks) : new TaskList(loadedTasks);
+            Ui ui = new Ui();
+            for (String command : List.of("todo read book", "deadline return book /by 2025-09-09 1900",
+                    "todo write essay", "mark 3")) {
+                Parser.parse(command).execute(taskList, ui, storage);
+            }
+            taskList.findTasks("book");
+            taskList.findDueTasks(LocalDateTime.MIN, LocalDateTime.MAX, true);
+            List<String> before = render(taskList);
+            String fileBefore = readString(filePath);
+            int savesBefore = storage.saveCount;
+
+            GigachadException thrown = assertThrows(GigachadException.class, () -> Transaction
+                    .parse("mark 2; unmark 3; delete #0; todo book club; delete 1-2; mark 9")
+                    .execute(taskList, ui, storage));
+
+            assertEquals("Command 6 failed, so none of the commands on the line were carried out: "
+                    + "Invalid task number! You only have 1 tasks.", thrown.getMessage());
+            assertEquals(before, render(taskList));
+            assertEquals(fileBefore, readString(filePath));
+            assertEquals(savesBefore, storage.saveCount);
+            assertEquals(List.of("[T][ ] read book", "[D][ ] return book (by: 2025-09-09 1900)"),
+                    taskList.findTasks("book").stream().map(Task::toString).toList());
+            assertEquals(1, taskList.findDueTasks(LocalDateTime.MIN, LocalDateTime.MAX, true).size());
+            assertEquals("[T][X] write essay", taskList.getTaskById(2).toString());
+        }
+    }
+
+    /**
+     * Verifies that a committed line reaches a journal in one group, and replays to the same tasks.
+     */
+    @Test
+    public void execute_journaledStorage_replaysCommittedLine() throws Exception {
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        WriteBehindStorage storage = new WriteBehindStorage(filePath, WriteBehindStorage.Durability.CHECKPOINT);
+        TaskList taskList = new TaskList(storage.initStorage());
+
+        Transaction.parse("todo a; todo b; todo c; mark 2; delete 1").execute(taskList, new Ui(), storage);
+        assertEquals(3, storage.pendingCount());
+        storage.flush();
+
+        TaskList replayed = new TaskList(new Storage(filePath, true).initStorage());
+        assertEquals(render(taskList), render(replayed));
+        storage.close();
+    }
+
+    /**
+     * Verifies that a line with a blank command or bye is turned down before anything runs.
+     */
+    @Test
+    public void parse_blankCommandOrBye_exceptionThrown() {
+        assertThrows(GigachadException.class, () -> Transaction.parse("; todo b"));
+        assertThrows(GigachadException.class, () -> Transaction.parse("todo a; BYE"));
+        assertEquals(2, assertDoesNotThrow(() -> Transaction.parse("todo a; list")).size());
+    }
+
+    /**
+     * Verifies that a semicolon splits the line only before a command word, and that an escaped one never does.
+     */
+    @Test
+    public void execute_semicolonsInsideCommands_keptLiterally() throws Exception {
+        assertEquals(List.of("todo buy milk; eggs"), Transaction.split("todo buy milk; eggs"));
+        assertEquals(List.of("find a;b"), Transaction.split("find a;b"));
+        assertEquals(List.of("todo a", " Mark 1"), Transaction.split("todo a; Mark 1"));
+        assertEquals(List.of("todo remember; list the groceries", " todo x\\y"),
+                Transaction.split("todo remember\\; list the groceries; todo x\\y"));
+
+        Path filePath = tempDir.toPath().resolve("tasks.txt");
+        CountingStorage storage = new CountingStorage(filePath);
+        TaskList taskList = new TaskList(storage.initStorage());
+        for (String line : List.of("todo buy milk; eggs", "todo remember\\; list the groceries; mark 1")) {
+            Transaction.parse(line).execute(taskList, new Ui(), storage);
+        }
+
+        assertEquals(List.of("[T][X] buy milk; eggs #0", "[T][ ] remember; list the groceries #1"),
+                render(taskList));
+    }
+}